@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.3.3"
     id("io.spring.dependency-management") version "1.1.6"
+    id("org.springframework.boot.aot") version "3.3.3"
 }
 
 group = "de.szut"
@@ -26,6 +27,8 @@ repositories {
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-web")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("org.springframework.boot:spring-boot-starter-validation")
     compileOnly("org.projectlombok:lombok")
     annotationProcessor("org.projectlombok:lombok")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
@@ -35,6 +38,8 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-oauth2-client:3.3.3")
     implementation("org.postgresql:postgresql")
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.6.0")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
     testImplementation("org.springframework.security:spring-security-test")
     testImplementation("org.testcontainers:testcontainers:1.20.0")
     testImplementation("org.testcontainers:postgresql:1.20.0")
@@ -43,3 +48,62 @@ dependencies {
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+tasks.register<Test>("benchmark") {
+    description = "Runs the benchmarks tagged with 'benchmark' and prints their results."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    testLogging {
+        showStandardStreams = true
+    }
+}
+
+// Fast-startup mode: the AOT-processed application, extracted, plus a class-data-sharing archive from a training run.
+// The training run stops after the context refresh and needs no database (see Readme, "Schnellstart-Modus").
+// Each task owns its output directory, so that extracting again does not clobber (or count as changing) the archive.
+val extractedDirectory = layout.buildDirectory.dir("boot-extracted")
+val cdsDirectory = layout.buildDirectory.dir("cds")
+val java21 = javaToolchains.launcherFor {
+    languageVersion = JavaLanguageVersion.of(21)
+}
+
+tasks.register<Exec>("extractBootJar") {
+    description = "Extracts the AOT-processed boot jar into build/boot-extracted for class-data sharing."
+    group = "build"
+    val bootJar = tasks.bootJar.get()
+    dependsOn(bootJar)
+    inputs.file(bootJar.archiveFile)
+    outputs.dir(extractedDirectory)
+    executable = java21.get().executablePath.asFile.absolutePath
+    args("-Djarmode=tools", "-jar", bootJar.archiveFile.get().asFile.absolutePath,
+        "extract", "--force", "--application-filename", "app.jar",
+        "--destination", extractedDirectory.get().asFile.absolutePath)
+}
+
+tasks.register<Exec>("cdsArchive") {
+    description = "Creates build/cds/app.jsa from a training run of the extracted application."
+    group = "build"
+    dependsOn("extractBootJar")
+    inputs.dir(extractedDirectory)
+    val archive = cdsDirectory.map { it.file("app.jsa") }
+    outputs.file(archive)
+    workingDir(extractedDirectory)
+    doFirst { cdsDirectory.get().asFile.mkdirs() }
+    executable = java21.get().executablePath.asFile.absolutePath
+    args("-XX:ArchiveClassesAtExit=" + archive.get().asFile.absolutePath, "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh",
+        "-jar", "app.jar",
+        "--spring.jpa.hibernate.ddl-auto=none",
+        "--spring.sql.init.mode=never",
+        "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "--spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false")
+}
@@ -0,0 +1,36 @@
+#!/bin/bash
+# Compares the startup of the regular boot jar with the fast-startup mode (AOT + CDS archive).
+# Measures the time until the first request succeeds and the resident memory (RSS) at that point.
+# Requires a running Postgres (docker compose up) and ./gradlew bootJar cdsArchive.
+# Usage: scripts/startup-benchmark.sh [runs]
+set -e
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+URL=http://localhost:8080/actuator/health
+JAR=$(ls build/libs/*-SNAPSHOT.jar | grep -v plain | head -n 1)
+
+measure() {
+  local label=$1
+  shift
+  for run in $(seq "$RUNS"); do
+    local start=$(date +%s%N)
+    "$@" > /dev/null 2>&1 &
+    local pid=$!
+    until curl -s -o /dev/null "$URL"; do
+      if ! kill -0 $pid 2> /dev/null; then
+        echo "$label run $run: the JVM exited before the first request succeeded" >&2
+        exit 1
+      fi
+      sleep 0.02
+    done
+    local end=$(date +%s%N)
+    local rss=$(awk '/VmRSS/ {print $2}' /proc/$pid/status)
+    printf '%-8s run %d: first request after %5d ms, RSS %6d MB\n' "$label" "$run" $(((end - start) / 1000000)) $((rss / 1024))
+    kill $pid
+    wait $pid 2> /dev/null || true
+  done
+}
+
+measure regular java -jar "$JAR"
+measure fast bash -c "cd build/boot-extracted && exec java -XX:SharedArchiveFile=../cds/app.jsa -Dspring.aot.enabled=true -jar app.jar"
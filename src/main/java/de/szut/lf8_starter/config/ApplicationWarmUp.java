@@ -0,0 +1,235 @@
+package de.szut.lf8_starter.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.szut.lf8_starter.employee.EmployeeClient;
+import de.szut.lf8_starter.project.ProjectEntity;
+import de.szut.lf8_starter.project.ProjectMapper;
+import de.szut.lf8_starter.project.ProjectRepository;
+import de.szut.lf8_starter.project.ProjectService;
+import de.szut.lf8_starter.project.ProjectStatus;
+import de.szut.lf8_starter.project.dto.ProjectCreateDto;
+import de.szut.lf8_starter.project.dto.ProjectGetDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Warms the application up before it reports readiness: opens the connection pool, loads the JWT signing keys,
+ * runs the mapper and JSON paths often enough for the JIT to compile them and reads the most recent projects.
+ * In service-account mode it also fetches the employees of those projects, which fills the shared employee details
+ * cache and the last known answers used while the employee service is unavailable. In forward mode there is no
+ * token to fetch them with, and the caches are kept per caller anyway.
+ * Runs synchronously on ApplicationReadyEvent; Spring Boot switches readiness to ACCEPTING_TRAFFIC only after
+ * all listeners of that event have returned. Failing steps are logged and skipped, and each step is only waited for
+ * until the overall timeout, so they never block readiness.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "project.warmup.enabled", matchIfMissing = true)
+public class ApplicationWarmUp {
+
+    private final DataSource dataSource;
+    private final ObjectProvider<JwtDecoder> jwtDecoder;
+    private final ProjectMapper projectMapper;
+    private final ProjectService projectService;
+    private final ProjectRepository projectRepository;
+    private final EmployeeClient employeeClient;
+    private final ObjectMapper objectMapper;
+    private final int connections;
+    private final int iterations;
+    private final int hotProjects;
+    private final Duration timeout;
+
+    public ApplicationWarmUp(DataSource dataSource,
+                             ObjectProvider<JwtDecoder> jwtDecoder,
+                             ProjectMapper projectMapper,
+                             ProjectService projectService,
+                             ProjectRepository projectRepository,
+                             EmployeeClient employeeClient,
+                             ObjectMapper objectMapper,
+                             @Value("${project.warmup.connections:10}") int connections,
+                             @Value("${project.warmup.iterations:5000}") int iterations,
+                             @Value("${project.warmup.hot-projects:100}") int hotProjects,
+                             @Value("${project.warmup.timeout:PT60S}") Duration timeout) {
+        this.dataSource = dataSource;
+        this.jwtDecoder = jwtDecoder;
+        this.projectMapper = projectMapper;
+        this.projectService = projectService;
+        this.projectRepository = projectRepository;
+        this.employeeClient = employeeClient;
+        this.objectMapper = objectMapper;
+        this.connections = connections;
+        this.iterations = iterations;
+        this.hotProjects = hotProjects;
+        this.timeout = timeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + timeout.toNanos();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            step("connection pool", deadline, executor, this::openConnections);
+            step("JWT signing keys", deadline, executor, this::loadSigningKeys);
+            step("mapper and serialisation", deadline, executor, this::exerciseMapping);
+            step("hot projects", deadline, executor, this::readHotProjects);
+            if (employeeClient.usesServiceAccount()) {
+                step("employees of hot projects", deadline, executor, this::fetchHotEmployees);
+            }
+        } finally {
+            // not close(), which would wait for a cancelled step that ignores the interrupt
+            executor.shutdownNow();
+        }
+        log.info("Warm-up finished after {} ms", Duration.ofNanos(System.nanoTime() - startedAt).toMillis());
+    }
+
+    /**
+     * Runs a step on its own thread and waits for it at most until the deadline, so that a hanging step
+     * (e.g. a JWK set fetch without HTTP timeout) cannot block readiness. A step that runs late is cancelled.
+     */
+    private void step(String name, long deadline, ExecutorService executor, Runnable step) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            log.warn("Warm-up timeout reached, skipping {}", name);
+            return;
+        }
+        Future<?> running = executor.submit(step);
+        try {
+            running.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            running.cancel(true);
+            log.warn("Warm-up timeout reached during {}, cancelled it", name);
+        } catch (ExecutionException e) {
+            log.warn("Warm-up of {} failed: {}", name, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            running.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Holds several connections at once, so that the pool opens them now instead of on the first requests.
+     */
+    private void openConnections() {
+        List<Connection> opened = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                Connection connection = dataSource.getConnection();
+                opened.add(connection);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        } finally {
+            for (Connection connection : opened) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Could not return warm-up connection", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes a token with an unknown key id. The signature check fails, but only after the decoder
+     * has fetched and cached the JWK set, so the first real request does not pay for that round trip.
+     */
+    private void loadSigningKeys() {
+        JwtDecoder decoder = jwtDecoder.getIfAvailable();
+        if (decoder == null) {
+            return;
+        }
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String token = encoder.encodeToString("{\"alg\":\"RS256\",\"kid\":\"warm-up\"}".getBytes())
+                + "." + encoder.encodeToString("{\"sub\":\"warm-up\"}".getBytes())
+                + "." + encoder.encodeToString("signature".getBytes());
+        try {
+            decoder.decode(token);
+        } catch (JwtException expected) {
+            // the keys are loaded, the dummy token is rejected as intended
+        }
+    }
+
+    /**
+     * Runs the request and response mapping of a project with synthetic data.
+     */
+    private void exerciseMapping() {
+        try {
+            for (int i = 0; i < iterations; i++) {
+                ProjectCreateDto createDto = new ProjectCreateDto();
+                createDto.setName("Warm-up " + i);
+                createDto.setDescription("Synthetic project for the warm-up");
+                createDto.setCustomerId((long) i);
+                createDto.setResponsibleEmployeeId((long) i);
+                createDto.setStartDate(LocalDate.now());
+                createDto.setEndDate(LocalDate.now().plusDays(i % 365));
+                createDto.setStatus(ProjectStatus.values()[i % ProjectStatus.values().length]);
+                createDto.setEmployeeIds(Set.of((long) i, (long) i + 1));
+
+                ProjectEntity entity = projectMapper.mapCreateDtoToEntity(createDto);
+                entity.setId((long) i);
+                entity.setVersion(0L);
+                byte[] json = objectMapper.writeValueAsBytes(projectMapper.mapEntityToGetDto(entity));
+                objectMapper.readValue(json, ProjectGetDto.class);
+                objectMapper.readValue(objectMapper.writeValueAsBytes(createDto), ProjectCreateDto.class);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the most recent projects through the service, which fills Hibernate's query plan cache
+     * and compiles the read path.
+     */
+    private void readHotProjects() {
+        findHotProjects().forEach(project -> projectService.readById(project.getId(), false));
+    }
+
+    /**
+     * Fetches the responsible employees and team members of the most recent projects with the service token.
+     */
+    private void fetchHotEmployees() {
+        Set<Long> employeeIds = new LinkedHashSet<>();
+        for (ProjectEntity project : findHotProjects()) {
+            employeeIds.add(project.getResponsibleEmployeeId());
+            employeeIds.addAll(project.getEmployeeIds());
+        }
+        employeeClient.findDetails(employeeIds, null);
+    }
+
+    private List<ProjectEntity> findHotProjects() {
+        return projectRepository.findAll(PageRequest.of(0, hotProjects, Sort.by(Sort.Direction.DESC, "id"))).getContent();
+    }
+}
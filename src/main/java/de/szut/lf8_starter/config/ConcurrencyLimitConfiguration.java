@@ -0,0 +1,38 @@
+package de.szut.lf8_starter.config;
+
+import de.szut.lf8_starter.resilience.AdaptiveConcurrencyLimiter;
+import de.szut.lf8_starter.resilience.ConcurrencyLimitInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts adaptive concurrency limits in front of the ProjectController (see {@link AdaptiveConcurrencyLimiter}).
+ * The current limits, in-flight requests and rejections are exported as project.concurrency.* metrics.
+ * The bulk import is excluded: it may run for minutes and would hold a write permit for that long,
+ * and its latency would collapse the adaptive write limit.
+ */
+@Configuration
+@ConditionalOnProperty(value = "project.concurrency-limit.enabled", matchIfMissing = true)
+public class ConcurrencyLimitConfiguration implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitInterceptor interceptor;
+
+    public ConcurrencyLimitConfiguration(MeterRegistry meterRegistry,
+                                         @Value("${project.concurrency-limit.initial:20}") int initialLimit,
+                                         @Value("${project.concurrency-limit.min:4}") int minLimit,
+                                         @Value("${project.concurrency-limit.max:200}") int maxLimit) {
+        this.interceptor = new ConcurrencyLimitInterceptor(
+                new AdaptiveConcurrencyLimiter("read", initialLimit, minLimit, maxLimit, meterRegistry),
+                new AdaptiveConcurrencyLimiter("write", initialLimit, minLimit, maxLimit, meterRegistry));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor).addPathPatterns("/projects", "/projects/**")
+                .excludePathPatterns("/projects/import");
+    }
+}
@@ -0,0 +1,243 @@
+package de.szut.lf8_starter.config;
+
+import de.szut.lf8_starter.project.ProjectStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds performance environments (profile "perf") with a large, reproducible set of projects and team memberships.
+ * Rows are streamed through Postgres COPY instead of repository saves. The same seed always yields the same data.
+ * A small share of "hot" employees receives a large share of all memberships, so some employees are on hundreds of projects.
+ * The per-row assignment triggers are disabled during the load; afterwards project_assignments is rebuilt in one statement,
+ * in which memberships that would double-book an employee are skipped (first project wins). Skipped team memberships are
+ * deleted and projects whose responsible employee was skipped lose their end date, so that the stored teams match
+ * project_assignments and later schedule changes do not trip over their own rows.
+ * Dates are relative to a configured anchor date instead of today, and the profile keeps its schema between restarts;
+ * the schema scripts are run here on the first start only.
+ */
+@Slf4j
+@Component
+@Profile("perf")
+public class PerformanceDataGenerator implements ApplicationRunner {
+
+    private static final int FLUSH_BYTES = 1 << 20;
+
+    private static final String REBUILD_ASSIGNMENTS = """
+            INSERT INTO project_assignments (project_id, employee_id, period)
+            SELECT p.id, e.employee_id, daterange(p.start_date, p.end_date, '[]')
+            FROM projects p
+            JOIN (SELECT id AS project_id, responsible_employee_id AS employee_id FROM projects
+                  UNION
+                  SELECT project_id, employee_id FROM project_employees) e ON e.project_id = p.id
+            WHERE p.start_date IS NOT NULL AND p.end_date IS NOT NULL
+            ORDER BY p.id
+            ON CONFLICT DO NOTHING""";
+
+    private static final String UNSCHEDULE_SKIPPED_RESPONSIBLES = """
+            UPDATE projects p SET end_date = NULL
+            WHERE p.start_date IS NOT NULL AND p.end_date IS NOT NULL
+              AND NOT EXISTS (SELECT 1 FROM project_assignments a
+                              WHERE a.project_id = p.id AND a.employee_id = p.responsible_employee_id)""";
+
+    private static final String DELETE_SKIPPED_MEMBERSHIPS = """
+            DELETE FROM project_employees pe
+            USING projects p
+            WHERE p.id = pe.project_id
+              AND p.start_date IS NOT NULL AND p.end_date IS NOT NULL
+              AND NOT EXISTS (SELECT 1 FROM project_assignments a
+                              WHERE a.project_id = pe.project_id AND a.employee_id = pe.employee_id)""";
+
+    private final DataSource dataSource;
+    private final ResourceLoader resourceLoader;
+    private final String[] schemaLocations;
+    private final String separator;
+    private final long projects;
+    private final long employees;
+    private final long customers;
+    private final int averageTeamSize;
+    private final double hotEmployeeShare;
+    private final double hotMembershipShare;
+    private final long seed;
+    private final LocalDate anchorDate;
+
+    public PerformanceDataGenerator(DataSource dataSource,
+                                    ResourceLoader resourceLoader,
+                                    @Value("${spring.sql.init.schema-locations}") String[] schemaLocations,
+                                    @Value("${spring.sql.init.separator}") String separator,
+                                    @Value("${project.seed.projects:1000000}") long projects,
+                                    @Value("${project.seed.employees:200000}") long employees,
+                                    @Value("${project.seed.customers:5000}") long customers,
+                                    @Value("${project.seed.average-team-size:10}") int averageTeamSize,
+                                    @Value("${project.seed.hot-employee-share:0.01}") double hotEmployeeShare,
+                                    @Value("${project.seed.hot-membership-share:0.1}") double hotMembershipShare,
+                                    @Value("${project.seed.random-seed:42}") long seed,
+                                    @Value("${project.seed.anchor-date:2025-01-01}") String anchorDate) {
+        this.dataSource = dataSource;
+        this.resourceLoader = resourceLoader;
+        this.schemaLocations = schemaLocations;
+        this.separator = separator;
+        this.projects = projects;
+        this.employees = employees;
+        this.customers = customers;
+        this.averageTeamSize = averageTeamSize;
+        this.hotEmployeeShare = hotEmployeeShare;
+        this.hotMembershipShare = hotMembershipShare;
+        this.seed = seed;
+        this.anchorDate = LocalDate.parse(anchorDate);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            createSchemaIfMissing(connection, statement);
+            try (ResultSet result = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM projects)")) {
+                if (result.next() && result.getBoolean(1)) {
+                    log.info("Projects already present, skipping synthetic data generation");
+                    return;
+                }
+            }
+
+            long startedAt = System.currentTimeMillis();
+            connection.setAutoCommit(false);
+            statement.execute("ALTER TABLE projects DISABLE TRIGGER projects_insert_assignments");
+            statement.execute("ALTER TABLE project_employees DISABLE TRIGGER project_employees_add_assignment");
+
+            long memberships = copyRows(connection.unwrap(PGConnection.class));
+
+            statement.execute("ALTER TABLE projects ENABLE TRIGGER projects_insert_assignments");
+            statement.execute("ALTER TABLE project_employees ENABLE TRIGGER project_employees_add_assignment");
+            statement.execute("SELECT setval(pg_get_serial_sequence('projects', 'id'), " + projects + ")");
+            statement.executeUpdate(REBUILD_ASSIGNMENTS);
+            int unscheduled = statement.executeUpdate(UNSCHEDULE_SKIPPED_RESPONSIBLES);
+            memberships -= statement.executeUpdate(DELETE_SKIPPED_MEMBERSHIPS);
+            statement.execute("ANALYZE projects");
+            statement.execute("ANALYZE project_employees");
+            statement.execute("ANALYZE project_assignments");
+            connection.commit();
+
+            log.info("Generated {} projects ({} without end date due to double bookings) with {} memberships (seed {}) in {} s",
+                    projects, unscheduled, memberships, seed, (System.currentTimeMillis() - startedAt) / 1000);
+        }
+    }
+
+    /**
+     * The perf profile neither drops the schema nor runs spring.sql.init, so that the generated data survives restarts.
+     * On the first start Hibernate has created the tables, and the schema scripts still have to be run once.
+     */
+    private void createSchemaIfMissing(Connection connection, Statement statement) throws SQLException {
+        try (ResultSet result = statement.executeQuery("SELECT to_regclass('project_assignments') IS NOT NULL")) {
+            if (result.next() && result.getBoolean(1)) {
+                return;
+            }
+        }
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+        for (String location : schemaLocations) {
+            populator.addScript(resourceLoader.getResource(location.trim()));
+        }
+        populator.setSeparator(separator);
+        populator.populate(connection);
+        log.info("Created the assignment and import schema");
+    }
+
+    /**
+     * Streams projects and memberships into two COPY operations. Projects are generated first and the
+     * memberships from the same random sequence afterwards, which keeps the result independent of batch sizes.
+     */
+    private long copyRows(PGConnection connection) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        CopyIn projectCopy = connection.getCopyAPI().copyIn("""
+                COPY projects (id, name, description, customer_id, responsible_employee_id,
+                               start_date, end_date, status, version) FROM STDIN""");
+        StringBuilder rows = new StringBuilder(FLUSH_BYTES + 1024);
+        for (long id = 1; id <= projects; id++) {
+            LocalDate start = anchorDate.minusDays(5 * 365).plusDays(random.nextInt(6 * 365));
+            // mostly weeks to a few months, occasionally more than a year
+            LocalDate end = random.nextInt(10) == 0 ? null : start.plusDays((long) Math.exp(2 + random.nextDouble() * 4));
+            rows.append(id).append('\t')
+                    .append("Project ").append(id).append('\t')
+                    .append(random.nextInt(4) == 0 ? "\\N" : "Synthetic project " + id).append('\t')
+                    .append(1 + random.nextLong(customers)).append('\t')
+                    .append(nextEmployee(random)).append('\t')
+                    .append(start).append('\t')
+                    .append(end == null ? "\\N" : end.toString()).append('\t')
+                    .append(statusFor(start, end, anchorDate, random)).append('\t')
+                    .append(0).append('\n');
+            flushIfFull(projectCopy, rows);
+        }
+        flush(projectCopy, rows);
+        projectCopy.endCopy();
+
+        CopyIn memberCopy = connection.getCopyAPI().copyIn("COPY project_employees (project_id, employee_id) FROM STDIN");
+        long memberships = 0;
+        Set<Long> team = new HashSet<>();
+        for (long id = 1; id <= projects; id++) {
+            int teamSize = random.nextInt(2 * averageTeamSize + 1);
+            team.clear();
+            while (team.size() < teamSize) {
+                team.add(nextEmployee(random));
+            }
+            for (Long employeeId : team) {
+                rows.append(id).append('\t').append(employeeId).append('\n');
+            }
+            memberships += team.size();
+            flushIfFull(memberCopy, rows);
+        }
+        flush(memberCopy, rows);
+        memberCopy.endCopy();
+        return memberships;
+    }
+
+    /**
+     * Picks an employee with a skewed distribution: hotMembershipShare of all picks go to the
+     * hotEmployeeShare of employees with the lowest IDs.
+     */
+    private long nextEmployee(SplittableRandom random) {
+        long hotEmployees = Math.max(1, (long) (employees * hotEmployeeShare));
+        if (random.nextDouble() < hotMembershipShare) {
+            return 1 + random.nextLong(hotEmployees);
+        }
+        return 1 + hotEmployees + random.nextLong(Math.max(1, employees - hotEmployees));
+    }
+
+    private static ProjectStatus statusFor(LocalDate start, LocalDate end, LocalDate anchorDate, SplittableRandom random) {
+        if (start.isAfter(anchorDate)) {
+            return random.nextInt(20) == 0 ? ProjectStatus.CANCELLED : ProjectStatus.PLANNED;
+        }
+        if (end != null && end.isBefore(anchorDate)) {
+            return random.nextInt(10) == 0 ? ProjectStatus.CANCELLED : ProjectStatus.FINISHED;
+        }
+        return ProjectStatus.RUNNING;
+    }
+
+    private static void flushIfFull(CopyIn copy, StringBuilder rows) throws SQLException {
+        if (rows.length() >= FLUSH_BYTES) {
+            flush(copy, rows);
+        }
+    }
+
+    private static void flush(CopyIn copy, StringBuilder rows) throws SQLException {
+        byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        rows.setLength(0);
+    }
+}
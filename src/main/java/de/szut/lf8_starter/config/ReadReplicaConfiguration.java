@@ -0,0 +1,113 @@
+package de.szut.lf8_starter.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Splits database traffic between the primary from spring.datasource.* and a read replica.
+ * Only active if project.datasource.replica.url is set; otherwise Spring Boot's single datasource is used.
+ * Read-only transactions go to the replica, except for clients inside their read-your-writes window.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "project.datasource.replica", name = "url")
+public class ReadReplicaConfiguration implements WebMvcConfigurer {
+
+    @Value("${project.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${project.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${project.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${project.datasource.replica.stickiness:PT5S}")
+    private Duration stickiness;
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker(stickiness);
+    }
+
+    @Bean(autowireCandidate = false)
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(autowireCandidate = false)
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * The lazy proxy defers fetching the physical connection until the first statement,
+     * when the read-only flag of the surrounding transaction is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(readYourWritesTracker());
+        HikariDataSource primary = primaryDataSource(properties);
+        routingDataSource.setTargetDataSources(Map.<Object, Object>of(
+                ReplicaRoutingDataSource.PRIMARY, primary,
+                ReplicaRoutingDataSource.REPLICA, replicaDataSource()));
+        routingDataSource.setDefaultTargetDataSource(primary);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        ReadYourWritesTracker tracker = readYourWritesTracker();
+        // Recorded before the handler runs, so that a read racing the response (e.g. one sent as soon as the
+        // commit is visible) is already pinned, and again afterwards, so that the window starts at the commit.
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (isUnsafe(request)) {
+                    tracker.recordWrite();
+                }
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+                if (isUnsafe(request)) {
+                    tracker.recordWrite();
+                }
+            }
+        });
+    }
+
+    private static boolean isUnsafe(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        return method != HttpMethod.GET && method != HttpMethod.HEAD && method != HttpMethod.OPTIONS;
+    }
+}
@@ -0,0 +1,56 @@
+package de.szut.lf8_starter.config;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which clients (JWT subjects) wrote recently, so that their reads can be kept on the primary
+ * for a short stickiness window and they never see their own writes missing on a lagging replica.
+ * Memory is bounded by evicting expired entries once the map grows beyond a threshold.
+ */
+public class ReadYourWritesTracker {
+
+    private static final int EVICTION_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final ConcurrentHashMap<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Records a write by the client of the current request.
+     */
+    public void recordWrite() {
+        String client = currentClient();
+        if (client == null || windowNanos <= 0) {
+            return;
+        }
+        lastWriteNanos.put(client, System.nanoTime());
+        if (lastWriteNanos.size() > EVICTION_THRESHOLD) {
+            long now = System.nanoTime();
+            lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+        }
+    }
+
+    /**
+     * Returns true if the client of the current request wrote within the stickiness window.
+     */
+    public boolean hasRecentWrite() {
+        String client = currentClient();
+        if (client == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteNanos.get(client);
+        return writtenAt != null && System.nanoTime() - writtenAt < windowNanos;
+    }
+
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,30 @@
+package de.szut.lf8_starter.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes connections of read-only transactions to the replica and everything else to the primary.
+ * Clients that wrote within the stickiness window of the {@link ReadYourWritesTracker} stay on the primary.
+ * Repository methods called outside a transaction open their own read-only transaction and therefore go to the
+ * replica as well; reads that a write depends on must run inside the read-write transaction template.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingDataSource(ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !readYourWritesTracker.hasRecentWrite()) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,28 @@
+package de.szut.lf8_starter.config;
+
+import de.szut.lf8_starter.resilience.RequestDeadlineInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Sets the deadline of project requests (see {@link de.szut.lf8_starter.resilience.RequestDeadline}),
+ * which bounds the calls to the employee service made for them.
+ */
+@Configuration
+public class RequestDeadlineConfiguration implements WebMvcConfigurer {
+
+    private final RequestDeadlineInterceptor interceptor;
+
+    public RequestDeadlineConfiguration(@Value("${project.request-deadline.default:PT10S}") Duration defaultTimeout) {
+        this.interceptor = new RequestDeadlineInterceptor(defaultTimeout);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor).addPathPatterns("/projects", "/projects/**");
+    }
+}
@@ -5,9 +5,11 @@ import de.szut.lf8_starter.hello.HelloEntity;
 import de.szut.lf8_starter.hello.HelloRepository;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 @Component
+@Profile("!perf")
 public class SampleDataCreator implements ApplicationRunner {
 
     private HelloRepository repository;
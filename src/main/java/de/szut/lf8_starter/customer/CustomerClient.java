@@ -0,0 +1,128 @@
+package de.szut.lf8_starter.customer;
+
+import de.szut.lf8_starter.exceptionHandling.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validates customers against the {@link CustomerDirectory}.
+ * Answers (exists and not found) are cached for the TTL, so repeated validations of the same customers cost no call;
+ * the customers not in the cache are looked up in one batch. The cache holds at most max-entries customers.
+ * Hits and misses are counted as project.customer.cache.
+ */
+@Slf4j
+@Component
+public class CustomerClient {
+
+    private final CustomerDirectory customerDirectory;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final ConcurrentHashMap<Long, Answer> answers = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public CustomerClient(CustomerDirectory customerDirectory, MeterRegistry meterRegistry,
+                          @Value("${project.customer-api.cache.ttl:PT10M}") Duration ttl,
+                          @Value("${project.customer-api.cache.max-entries:10000}") int maxEntries) {
+        this.customerDirectory = customerDirectory;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("project.customer.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("project.customer.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Validates that a customer exists. A null ID (no customer) is valid.
+     * Throws a ResourceNotFoundException if the customer does not exist.
+     *
+     * @param customerId the ID of the customer, or null.
+     */
+    public void requireExists(Long customerId) {
+        requireAllExist(customerId == null ? List.of() : List.of(customerId));
+    }
+
+    /**
+     * Validates that all given customers exist, looking up the ones not cached in one batch.
+     * Throws a ResourceNotFoundException for the first customer (in the given order) that does not exist.
+     *
+     * @param customerIds the IDs of the customers; null entries are ignored.
+     */
+    public void requireAllExist(Collection<Long> customerIds) {
+        findMissing(customerIds).stream()
+                .findFirst()
+                .ifPresent(customerId -> {
+                    throw new ResourceNotFoundException("Customer with ID " + customerId + " not found.");
+                });
+    }
+
+    /**
+     * Looks up all given customers, the ones not cached in one batch.
+     *
+     * @param customerIds the IDs of the customers; null entries are ignored.
+     * @return the customers that do not exist, in the given order.
+     */
+    public Set<Long> findMissing(Collection<Long> customerIds) {
+        Set<Long> uncached = new LinkedHashSet<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        List<Long> distinctIds = customerIds.stream().filter(Objects::nonNull).distinct().toList();
+        long now = System.nanoTime();
+        distinctIds.forEach(customerId -> {
+            Answer answer = answers.get(customerId);
+            if (answer == null || now - answer.answeredAt() >= ttlNanos) {
+                uncached.add(customerId);
+            } else if (!answer.exists()) {
+                missing.add(customerId);
+            }
+        });
+        hits.increment(distinctIds.size() - uncached.size());
+        misses.increment(uncached.size());
+
+        if (!uncached.isEmpty()) {
+            Set<Long> notFound = customerDirectory.findMissing(uncached);
+            long answeredAt = System.nanoTime();
+            uncached.forEach(customerId -> answers.put(customerId, new Answer(!notFound.contains(customerId), answeredAt)));
+            missing.addAll(notFound);
+            evictIfFull();
+            log.atDebug()
+                    .setMessage("Looked up {} customers, {} not found")
+                    .addArgument(uncached.size())
+                    .addArgument(notFound.size())
+                    .addKeyValue("customerIds", uncached)
+                    .addKeyValue("notFound", notFound)
+                    .log();
+        }
+
+        Set<Long> ordered = new LinkedHashSet<>();
+        distinctIds.stream().filter(missing::contains).forEach(ordered::add);
+        return ordered;
+    }
+
+    private void evictIfFull() {
+        if (answers.size() <= maxEntries) {
+            return;
+        }
+        long now = System.nanoTime();
+        answers.values().removeIf(answer -> now - answer.answeredAt() >= ttlNanos);
+        // still full of fresh answers: drop arbitrary ones, they are only looked up again
+        Iterator<Long> customerIds = answers.keySet().iterator();
+        while (answers.size() > maxEntries && customerIds.hasNext()) {
+            customerIds.next();
+            customerIds.remove();
+        }
+    }
+
+    private record Answer(boolean exists, long answeredAt) {
+    }
+}
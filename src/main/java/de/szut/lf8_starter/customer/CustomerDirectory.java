@@ -0,0 +1,19 @@
+package de.szut.lf8_starter.customer;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Directory of the customers that can commission projects.
+ * Implementations answer for many customers at once, so a validation costs one call regardless of the number of IDs.
+ */
+public interface CustomerDirectory {
+
+    /**
+     * Looks up the given customers.
+     *
+     * @param customerIds the distinct IDs of the customers.
+     * @return the IDs of the customers that do not exist.
+     */
+    Set<Long> findMissing(Collection<Long> customerIds);
+}
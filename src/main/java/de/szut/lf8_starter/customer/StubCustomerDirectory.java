@@ -0,0 +1,34 @@
+package de.szut.lf8_starter.customer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Local stand-in for the customer service, which does not exist yet: every customer exists except the ones
+ * listed in project.customer-api.stub.unknown-ids (e.g. for tests).
+ */
+@Component
+public class StubCustomerDirectory implements CustomerDirectory {
+
+    private final Set<Long> unknownIds;
+
+    public StubCustomerDirectory(@Value("${project.customer-api.stub.unknown-ids:}") List<Long> unknownIds) {
+        this.unknownIds = Set.copyOf(unknownIds);
+    }
+
+    @Override
+    public Set<Long> findMissing(Collection<Long> customerIds) {
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long customerId : customerIds) {
+            if (unknownIds.contains(customerId)) {
+                missing.add(customerId);
+            }
+        }
+        return missing;
+    }
+}
@@ -0,0 +1,449 @@
+package de.szut.lf8_starter.employee;
+
+import de.szut.lf8_starter.employee.dto.EmployeeDto;
+import de.szut.lf8_starter.exceptionHandling.DeadlineExceededException;
+import de.szut.lf8_starter.exceptionHandling.ResourceNotFoundException;
+import de.szut.lf8_starter.exceptionHandling.UpstreamUnavailableException;
+import de.szut.lf8_starter.resilience.CircuitBreaker;
+import de.szut.lf8_starter.resilience.HedgedExecutor;
+import de.szut.lf8_starter.resilience.MicroBatcher;
+import de.szut.lf8_starter.resilience.RequestDeadline;
+import de.szut.lf8_starter.resilience.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Client for the external employee service.
+ * In the default mode ("forward") the caller's token is passed on, so concurrent lookups share one HTTP call only
+ * if they carry the same token. In mode "service-account" the service authenticates with its own
+ * client-credentials token; lookups then no longer depend on the caller and are shared across all requests.
+ * Concurrent lookups of the same employee (and token) share one call. Collecting validations for a batch window is
+ * off by default: the employee service has no bulk endpoint, so every distinct employee of a batch is still one GET.
+ * Each GET is hedged and retried on transient failures (see {@link HedgedExecutor}). Unbatched lookups run on a
+ * thread of their own within the configured timeout, and every caller sharing one waits only until the deadline of its
+ * own request. Batched lookups run on the batcher's threads and get the latest deadline of the callers waiting for
+ * them, so they stop once every caller has given up.
+ * A circuit breaker stops calling the employee service while it keeps failing; meanwhile employees seen within
+ * max-staleness (by the same token in forward mode) are validated from their last known answer, others fail fast
+ * with a 503.
+ * Employee details (for the expanded team of a project) are kept in a bounded cache. Like the lookups it is shared by
+ * all callers only in service-account mode; in forward mode entries are kept per token, because the employee service
+ * may answer differently depending on who asks.
+ */
+@Component
+public class EmployeeClient {
+
+    private static final String EMPLOYEE_URL = "https://employee-api.szut.dev/employees/{id}";
+    private static final int MAX_PARALLEL_LOOKUPS = 100;
+    private static final int MAX_KNOWN_EMPLOYEES = 100_000;
+    private static final long NO_CALLER_DEADLINE = Long.MAX_VALUE;
+
+    private final RestTemplate restTemplate;
+    private final ServiceAccountTokenProvider serviceAccountTokenProvider;
+    private final boolean useServiceAccount;
+    private final SingleFlight singleFlight;
+    private final HedgedExecutor hedgedExecutor;
+    private final CircuitBreaker circuitBreaker;
+    private final KnownEmployees<LookupKey> knownEmployees;
+    private final MeterRegistry meterRegistry;
+    private final long detailsTtlNanos;
+    private final long detailsTimeoutNanos;
+    private final int detailsMaxEntries;
+    private final ConcurrentHashMap<LookupKey, CachedDetails> detailsCache = new ConcurrentHashMap<>();
+    private final ExecutorService detailsExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService lookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore detailsPermits = new Semaphore(MAX_PARALLEL_LOOKUPS);
+    private final long callTimeoutNanos;
+    private final MicroBatcher<LookupKey, Boolean> lookupBatcher;
+    private final ConcurrentHashMap<LookupKey, Long> batchDeadlines = new ConcurrentHashMap<>();
+
+    public EmployeeClient(RestTemplate restTemplate, ServiceAccountTokenProvider serviceAccountTokenProvider,
+                          SingleFlight singleFlight, MeterRegistry meterRegistry,
+                          @Value("${project.employee-api.auth.mode:forward}") String authMode,
+                          @Value("${project.employee-api.batch.window:PT0S}") Duration batchWindow,
+                          @Value("${project.employee-api.batch.max-size:50}") int maxBatchSize,
+                          @Value("${project.employee-api.timeout:PT3S}") Duration callTimeout,
+                          @Value("${project.employee-api.hedging.percentile:0.95}") double hedgingPercentile,
+                          @Value("${project.employee-api.hedging.min-delay:PT0.05S}") Duration hedgingMinDelay,
+                          @Value("${project.employee-api.hedging.budget-ratio:0.1}") double hedgingBudgetRatio,
+                          @Value("${project.employee-api.retry.max-retries:2}") int maxRetries,
+                          @Value("${project.employee-api.retry.backoff:PT0.05S}") Duration retryBackoff,
+                          @Value("${project.employee-api.circuit-breaker.window-size:20}") int breakerWindowSize,
+                          @Value("${project.employee-api.circuit-breaker.minimum-calls:10}") int breakerMinimumCalls,
+                          @Value("${project.employee-api.circuit-breaker.failure-rate:0.5}") double breakerFailureRate,
+                          @Value("${project.employee-api.circuit-breaker.open-duration:PT10S}") Duration breakerOpenDuration,
+                          @Value("${project.employee-api.circuit-breaker.half-open-probes:1}") int breakerHalfOpenProbes,
+                          @Value("${project.employee-api.circuit-breaker.max-staleness:PT1H}") Duration maxStaleness,
+                          @Value("${project.employee-api.details.timeout:PT1S}") Duration detailsTimeout,
+                          @Value("${project.employee-api.details.cache-ttl:PT5M}") Duration detailsTtl,
+                          @Value("${project.employee-api.details.max-entries:10000}") int detailsMaxEntries) {
+        this.restTemplate = restTemplate;
+        this.serviceAccountTokenProvider = serviceAccountTokenProvider;
+        this.useServiceAccount = "service-account".equals(authMode);
+        this.singleFlight = singleFlight;
+        this.hedgedExecutor = new HedgedExecutor("employee-lookup", hedgingPercentile, hedgingMinDelay, hedgingBudgetRatio,
+                maxRetries, retryBackoff, EmployeeClient::isTransient, meterRegistry);
+        this.callTimeoutNanos = callTimeout.toNanos();
+        this.circuitBreaker = new CircuitBreaker("employee-api", breakerWindowSize, breakerMinimumCalls, breakerFailureRate,
+                breakerOpenDuration, breakerHalfOpenProbes, meterRegistry);
+        this.knownEmployees = new KnownEmployees<>(maxStaleness, MAX_KNOWN_EMPLOYEES);
+        this.meterRegistry = meterRegistry;
+        this.detailsTimeoutNanos = detailsTimeout.toNanos();
+        this.detailsTtlNanos = detailsTtl.toNanos();
+        this.detailsMaxEntries = detailsMaxEntries;
+        this.lookupBatcher = batchWindow.isZero() ? null
+                : new MicroBatcher<>("employee-lookup", batchWindow, maxBatchSize, this::lookup, meterRegistry);
+    }
+
+    /**
+     * Validates that an employee exists.
+     * Throws a ResourceNotFoundException if the employee does not exist.
+     *
+     * @param employeeId  the ID of the employee.
+     * @param bearerToken the caller's authorization token, forwarded unless the service account is used.
+     */
+    public void requireExists(Long employeeId, String bearerToken) {
+        requireAllExist(List.of(employeeId), bearerToken);
+    }
+
+    /**
+     * Validates that all given employees exist, with their lookups sent together.
+     * Throws a ResourceNotFoundException for the first employee (in the given order) that does not exist.
+     *
+     * @param employeeIds the IDs of the employees.
+     * @param bearerToken the caller's authorization token, forwarded unless the service account is used.
+     */
+    public void requireAllExist(Collection<Long> employeeIds, String bearerToken) {
+        List<CompletableFuture<Boolean>> lookups = employeeIds.stream()
+                .map(employeeId -> submit(lookupKey(employeeId, bearerToken)))
+                .toList();
+        lookups.forEach(EmployeeClient::await);
+    }
+
+    /**
+     * Looks up many employees, at most MAX_PARALLEL_LOOKUPS at a time, and reports the ones that do not exist.
+     * Other failures of the employee service are thrown.
+     *
+     * @param employeeIds the distinct IDs of the employees.
+     * @param bearerToken the caller's authorization token, forwarded unless the service account is used.
+     * @return the IDs of the employees that were not found.
+     */
+    public Set<Long> findMissing(Collection<Long> employeeIds, String bearerToken) {
+        Set<Long> missing = new LinkedHashSet<>();
+        List<Long> ids = List.copyOf(employeeIds);
+        for (int from = 0; from < ids.size(); from += MAX_PARALLEL_LOOKUPS) {
+            Map<Long, CompletableFuture<Boolean>> lookups = new LinkedHashMap<>();
+            ids.subList(from, Math.min(from + MAX_PARALLEL_LOOKUPS, ids.size()))
+                    .forEach(employeeId -> lookups.put(employeeId, submit(lookupKey(employeeId, bearerToken))));
+            lookups.forEach((employeeId, lookup) -> {
+                try {
+                    await(lookup);
+                } catch (ResourceNotFoundException e) {
+                    missing.add(employeeId);
+                }
+            });
+        }
+        return missing;
+    }
+
+    /**
+     * Fetches the details of employees, from the cache or in parallel from the employee service
+     * (at most MAX_PARALLEL_LOOKUPS at a time across all callers). Returns when all are resolved or the details
+     * timeout (or the request deadline) has passed; employees that were not found, failed or are still loading are left
+     * out, and the ones still loading are cached for the next call.
+     *
+     * @param employeeIds the IDs of the employees.
+     * @param bearerToken the caller's authorization token, forwarded unless the service account is used.
+     * @return the details by employee ID, in the given order, for the employees that could be resolved.
+     */
+    public Map<Long, EmployeeDto> findDetails(Collection<Long> employeeIds, String bearerToken) {
+        Map<Long, EmployeeDto> details = new LinkedHashMap<>();
+        Map<Long, CompletableFuture<EmployeeDto>> fetches = new LinkedHashMap<>();
+        long now = System.nanoTime();
+        for (Long employeeId : employeeIds) {
+            LookupKey key = lookupKey(employeeId, bearerToken);
+            CachedDetails cached = detailsCache.get(key);
+            if (cached != null && now - cached.loadedAt() < detailsTtlNanos) {
+                details.put(employeeId, cached.employee());
+            } else if (!fetches.containsKey(employeeId)) {
+                fetches.put(employeeId, CompletableFuture.supplyAsync(() -> loadDetails(key), detailsExecutor));
+            }
+        }
+        meterRegistry.counter("project.employee.details.cache", "result", "hit").increment(details.size());
+        meterRegistry.counter("project.employee.details.cache", "result", "miss").increment(fetches.size());
+
+        long deadline = RequestDeadline.nanosOr(now + detailsTimeoutNanos);
+        fetches.forEach((employeeId, fetch) -> {
+            try {
+                EmployeeDto employee = fetch.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (employee != null) {
+                    details.put(employeeId, employee);
+                }
+            } catch (ExecutionException | TimeoutException e) {
+                // left out of the partial result
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Map<Long, EmployeeDto> ordered = new LinkedHashMap<>();
+        employeeIds.stream().filter(details::containsKey).forEach(employeeId -> ordered.put(employeeId, details.get(employeeId)));
+        return ordered;
+    }
+
+    /**
+     * Returns true if lookups use the service's own token, so callers may pass a null bearer token.
+     */
+    public boolean usesServiceAccount() {
+        return useServiceAccount;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (lookupBatcher != null) {
+            lookupBatcher.close();
+        }
+        hedgedExecutor.close();
+        detailsExecutor.shutdownNow();
+        lookupExecutor.shutdownNow();
+    }
+
+    private LookupKey lookupKey(Long employeeId, String bearerToken) {
+        // with the service token the result is the same for every caller
+        return new LookupKey(employeeId, useServiceAccount ? null : bearerToken);
+    }
+
+    private CompletableFuture<Boolean> submit(LookupKey key) {
+        if (lookupBatcher != null) {
+            // taken over by lookup(), which runs on a thread without the request deadline;
+            // a caller without deadline lets the lookup use the whole call timeout
+            long remaining = RequestDeadline.remainingNanos();
+            long callerDeadline = remaining < 0 ? NO_CALLER_DEADLINE : System.nanoTime() + remaining;
+            batchDeadlines.merge(key, callerDeadline, Math::max);
+            return lookupBatcher.load(key);
+        }
+        // not run on the request thread: a shared lookup must not be bounded by the deadline of the caller that
+        // happened to start it, every caller waits for it until its own deadline in await()
+        return CompletableFuture.supplyAsync(() -> lookup(key), lookupExecutor);
+    }
+
+    private Boolean lookup(LookupKey key) {
+        // bounded by the call timeout, and by the callers' latest deadline when batched
+        Long batchDeadline = batchDeadlines.remove(key);
+        Long callerDeadline = batchDeadline == null || batchDeadline == NO_CALLER_DEADLINE ? null : batchDeadline;
+        return singleFlight.execute("employee-lookup", key, () -> guardedLookup(key, callerDeadline));
+    }
+
+    private Boolean guardedLookup(LookupKey key, Long callerDeadline) {
+        Long employeeId = key.employeeId();
+        try {
+            callEmployeeService(key, () -> fetch(employeeId, key.bearerToken(), Void.class), callerDeadline);
+            return Boolean.TRUE;
+        } catch (UpstreamUnavailableException e) {
+            return fallback(key, null);
+        } catch (ResourceNotFoundException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (isTransient(e) || e instanceof DeadlineExceededException) {
+                return fallback(key, e);
+            }
+            throw e;
+        }
+    }
+
+    private EmployeeDto loadDetails(LookupKey key) {
+        return singleFlight.execute("employee-details", key, () -> {
+            detailsPermits.acquireUninterruptibly();
+            try {
+                EmployeeDto employee = callEmployeeService(key,
+                        () -> fetch(key.employeeId(), key.bearerToken(), EmployeeDto.class), null);
+                if (employee != null) {
+                    cacheDetails(key, employee);
+                }
+                return employee;
+            } finally {
+                detailsPermits.release();
+            }
+        });
+    }
+
+    private void cacheDetails(LookupKey key, EmployeeDto employee) {
+        detailsCache.put(key, new CachedDetails(employee, System.nanoTime()));
+        if (detailsCache.size() > detailsMaxEntries) {
+            long now = System.nanoTime();
+            detailsCache.values().removeIf(cached -> now - cached.loadedAt() >= detailsTtlNanos);
+            // still full of fresh entries: drop arbitrary ones, they are only fetched again
+            Iterator<LookupKey> keys = detailsCache.keySet().iterator();
+            while (detailsCache.size() > detailsMaxEntries && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Calls the employee service for one employee through the circuit breaker, hedged and retried, within the call
+     * timeout or the earlier caller deadline. Remembers whether the employee exists and throws an
+     * UpstreamUnavailableException if the breaker is open. Only running into the call timeout counts as a failure:
+     * a caller deadline comes from the client's X-Request-Timeout and says nothing about the employee service.
+     */
+    private <T> T callEmployeeService(LookupKey key, Supplier<T> call, Long callerDeadline) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new UpstreamUnavailableException("The employee service is unavailable, employee " + key.employeeId()
+                    + " cannot be validated.");
+        }
+        long timeoutDeadline = System.nanoTime() + callTimeoutNanos;
+        boolean boundByCaller = callerDeadline != null && callerDeadline - timeoutDeadline < 0;
+        T result;
+        try {
+            result = hedgedExecutor.call(call, boundByCaller ? callerDeadline : timeoutDeadline);
+        } catch (ResourceNotFoundException e) {
+            circuitBreaker.onSuccess();
+            knownEmployees.remember(key, false);
+            throw e;
+        } catch (DeadlineExceededException e) {
+            if (boundByCaller) {
+                circuitBreaker.onIgnored();
+            } else {
+                circuitBreaker.onFailure();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                circuitBreaker.onFailure();
+            } else {
+                // the service answered, e.g. 401 for a bad token
+                circuitBreaker.onSuccess();
+            }
+            throw e;
+        }
+        circuitBreaker.onSuccess();
+        knownEmployees.remember(key, true);
+        return result;
+    }
+
+    /**
+     * Answers with the last known result while the employee service is unavailable. Without one the failure is
+     * thrown, or an UpstreamUnavailableException if the call was refused by the open circuit breaker.
+     */
+    private Boolean fallback(LookupKey key, RuntimeException failure) {
+        Long employeeId = key.employeeId();
+        Boolean exists = knownEmployees.lastKnown(key);
+        meterRegistry.counter("project.circuit-breaker.fallbacks", "name", "employee-api",
+                "result", exists != null ? "stale-hit" : "miss").increment();
+        if (exists == null) {
+            if (failure != null) {
+                throw failure;
+            }
+            throw new UpstreamUnavailableException("The employee service is unavailable, employee " + employeeId
+                    + " cannot be validated.");
+        }
+        if (!exists) {
+            throw new ResourceNotFoundException("Employee with ID " + employeeId + " not found.");
+        }
+        return Boolean.TRUE;
+    }
+
+    /**
+     * Waits for a lookup, at most until the deadline of the current request. The shared lookup itself goes on
+     * for other callers that still wait for it.
+     */
+    private static void await(CompletableFuture<Boolean> lookup) {
+        long remaining = RequestDeadline.remainingNanos();
+        try {
+            if (remaining < 0) {
+                lookup.join();
+            } else {
+                lookup.get(remaining, TimeUnit.NANOSECONDS);
+            }
+        } catch (CompletionException | ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("The employee service did not answer before the request deadline");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Interrupted while waiting for the employee service");
+        }
+    }
+
+    /**
+     * Failures worth another attempt: I/O errors and timeouts, 5xx answers and 429 Too Many Requests.
+     */
+    private static boolean isTransient(Throwable failure) {
+        return failure instanceof ResourceAccessException
+                || failure instanceof HttpServerErrorException
+                || failure instanceof HttpClientErrorException e && e.getStatusCode().equals(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private <T> T fetch(Long employeeId, String bearerToken, Class<T> responseType) {
+        if (bearerToken != null) {
+            return fetchWith(employeeId, bearerToken, responseType);
+        }
+        String authorization = serviceAccountTokenProvider.getAuthorization();
+        try {
+            return fetchWith(employeeId, authorization, responseType);
+        } catch (HttpClientErrorException e) {
+            if (!e.getStatusCode().equals(HttpStatus.UNAUTHORIZED)) {
+                throw e;
+            }
+            // the token was revoked or expired early: fetch a new one and try once more
+            serviceAccountTokenProvider.invalidate(authorization);
+            return fetchWith(employeeId, serviceAccountTokenProvider.getAuthorization(), responseType);
+        }
+    }
+
+    private <T> T fetchWith(Long employeeId, String authorization, Class<T> responseType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", authorization);
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+
+        try {
+            ResponseEntity<T> response = restTemplate.exchange(EMPLOYEE_URL, HttpMethod.GET, entity, responseType, employeeId);
+            return response != null ? response.getBody() : null;
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode().equals(HttpStatus.NOT_FOUND)) {
+                throw new ResourceNotFoundException("Employee with ID " + employeeId + " not found.");
+            }
+            throw e;
+        }
+    }
+
+    private record LookupKey(Long employeeId, String bearerToken) {
+    }
+
+    private record CachedDetails(EmployeeDto employee, long loadedAt) {
+    }
+}
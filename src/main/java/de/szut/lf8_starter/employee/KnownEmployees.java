@@ -0,0 +1,67 @@
+package de.szut.lf8_starter.employee;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The last answer of the employee service per lookup key: exists or not found, and when it was given.
+ * Keyed like the other employee caches, i.e. per employee and, in forward mode, per caller token, because the
+ * employee service may answer differently depending on who asks.
+ * Used only as fallback while the employee service is unavailable, never to skip a lookup.
+ * Memory is bounded: once the map grows beyond max-entries, entries older than the staleness bound are evicted and,
+ * if that is not enough, arbitrary ones until a tenth of the room is free again, so that not every new answer
+ * triggers another scan of the map.
+ */
+class KnownEmployees<K> {
+
+    private final long maxStalenessNanos;
+    private final int maxEntries;
+    private final ConcurrentHashMap<K, Answer> answers = new ConcurrentHashMap<>();
+
+    KnownEmployees(Duration maxStaleness, int maxEntries) {
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    void remember(K key, boolean exists) {
+        answers.put(key, new Answer(exists, System.nanoTime()));
+        if (answers.size() > maxEntries) {
+            evict();
+        }
+    }
+
+    /**
+     * Returns the last answer for the key if it is within the staleness bound, otherwise null.
+     */
+    Boolean lastKnown(K key) {
+        Answer answer = answers.get(key);
+        if (answer == null || System.nanoTime() - answer.answeredAt() >= maxStalenessNanos) {
+            return null;
+        }
+        return answer.exists();
+    }
+
+    int size() {
+        return answers.size();
+    }
+
+    private synchronized void evict() {
+        if (answers.size() <= maxEntries) {
+            // another thread evicted already
+            return;
+        }
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        long now = System.nanoTime();
+        answers.values().removeIf(answer -> now - answer.answeredAt() >= maxStalenessNanos);
+        // a lost answer only weakens the fallback for that employee
+        Iterator<K> keys = answers.keySet().iterator();
+        while (answers.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Answer(boolean exists, long answeredAt) {
+    }
+}
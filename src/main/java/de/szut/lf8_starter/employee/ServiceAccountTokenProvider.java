@@ -0,0 +1,129 @@
+package de.szut.lf8_starter.employee;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Client-credentials token of this service for calls to the employee service.
+ * The token is fetched once and shared by all requests. Within refresh-before of its expiry it is renewed in the
+ * background while callers keep using the still valid token; only an expired (or invalidated) token is renewed
+ * on the calling thread.
+ */
+@Slf4j
+@Component
+public class ServiceAccountTokenProvider {
+
+    private static final Duration DEFAULT_LIFETIME = Duration.ofMinutes(5);
+
+    private final RestTemplate restTemplate;
+    private final String tokenUri;
+    private final String clientId;
+    private final String username;
+    private final String password;
+    private final String scope;
+    private final Duration refreshBefore;
+
+    private final Object fetchLock = new Object();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile CachedToken cachedToken;
+
+    public ServiceAccountTokenProvider(RestTemplate restTemplate,
+                                       @Value("${project.employee-api.auth.token-uri:https://authentik.szut.dev/application/o/token/}") String tokenUri,
+                                       @Value("${project.employee-api.auth.client-id:}") String clientId,
+                                       @Value("${project.employee-api.auth.username:}") String username,
+                                       @Value("${project.employee-api.auth.password:}") String password,
+                                       @Value("${project.employee-api.auth.scope:openid}") String scope,
+                                       @Value("${project.employee-api.auth.refresh-before:PT60S}") Duration refreshBefore) {
+        this.restTemplate = restTemplate;
+        this.tokenUri = tokenUri;
+        this.clientId = clientId;
+        this.username = username;
+        this.password = password;
+        this.scope = scope;
+        this.refreshBefore = refreshBefore;
+    }
+
+    /**
+     * Returns the Authorization header value with the service token, fetching or renewing it if needed.
+     */
+    public String getAuthorization() {
+        Instant now = Instant.now();
+        CachedToken token = cachedToken;
+        if (token == null || !now.isBefore(token.expiresAt())) {
+            synchronized (fetchLock) {
+                token = cachedToken;
+                if (token == null || !Instant.now().isBefore(token.expiresAt())) {
+                    token = fetch();
+                }
+            }
+        } else if (!now.isBefore(token.expiresAt().minus(refreshBefore)) && refreshing.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("service-token-refresh").start(this::refreshInBackground);
+        }
+        return "Bearer " + token.value();
+    }
+
+    /**
+     * Drops the cached token, e.g. after the employee service rejected it, so the next call fetches a new one.
+     *
+     * @param authorization the header value that was rejected.
+     */
+    public void invalidate(String authorization) {
+        CachedToken token = cachedToken;
+        if (token != null && authorization.equals("Bearer " + token.value())) {
+            cachedToken = null;
+        }
+    }
+
+    private void refreshInBackground() {
+        try {
+            synchronized (fetchLock) {
+                fetch();
+            }
+        } catch (RestClientException | IllegalStateException e) {
+            // the current token stays in use until it expires, the next call tries again
+            log.warn("Refreshing the service token failed: {}", e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private CachedToken fetch() {
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("grant_type", "client_credentials");
+        form.add("client_id", clientId);
+        form.add("username", username);
+        form.add("password", password);
+        form.add("scope", scope);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+
+        Instant requestedAt = Instant.now();
+        Map<?, ?> response = restTemplate.postForObject(tokenUri, new HttpEntity<>(form, headers), Map.class);
+        if (response == null || !(response.get("access_token") instanceof String accessToken)) {
+            throw new IllegalStateException("Token endpoint returned no access_token");
+        }
+        Duration lifetime = response.get("expires_in") instanceof Number expiresIn
+                ? Duration.ofSeconds(expiresIn.longValue())
+                : DEFAULT_LIFETIME;
+        // measured from the request, so the token is never used past its real expiry
+        CachedToken token = new CachedToken(accessToken, requestedAt.plus(lifetime));
+        cachedToken = token;
+        return token;
+    }
+
+    private record CachedToken(String value, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,20 @@
+package de.szut.lf8_starter.employee.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+/**
+ * Data Transfer Object for an employee as returned by the external employee service.
+ * Used in the expanded response of GET /projects/{projectId}/employees.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EmployeeDto {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String street;
+    private String postcode;
+    private String city;
+    private String phone;
+}
@@ -0,0 +1,15 @@
+package de.szut.lf8_starter.exceptionHandling;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a call to an external service did not complete before the request deadline.
+ * Results in a 504 Gateway Timeout HTTP status.
+ */
+@ResponseStatus(value = HttpStatus.GATEWAY_TIMEOUT)
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,7 @@
 package de.szut.lf8_starter.exceptionHandling;
 
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -36,6 +38,83 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles validation failures of programmatically validated objects, e.g. a merged PATCH document.
+     * Returns a 400 Bad Request status with the first violation message.
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorDetails> handleConstraintViolationException(ConstraintViolationException ex,
+                                                                           WebRequest request) {
+        String errorMessage = ex.getConstraintViolations().iterator().next().getMessage();
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), errorMessage, request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles patch documents that cannot be applied.
+     * Returns a 400 Bad Request status.
+     */
+    @ExceptionHandler(InvalidPatchException.class)
+    public ResponseEntity<ErrorDetails> handleInvalidPatchException(InvalidPatchException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles unknown field names in a sparse fieldset.
+     * Returns a 400 Bad Request status.
+     */
+    @ExceptionHandler(InvalidFieldSelectionException.class)
+    public ResponseEntity<ErrorDetails> handleInvalidFieldSelectionException(InvalidFieldSelectionException ex,
+                                                                             WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles invalid callback URLs for deferred validation.
+     * Returns a 400 Bad Request status.
+     */
+    @ExceptionHandler(InvalidCallbackUrlException.class)
+    public ResponseEntity<ErrorDetails> handleInvalidCallbackUrlException(InvalidCallbackUrlException ex,
+                                                                          WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles requests shed by the concurrency limiter.
+     * Returns a 503 Service Unavailable status, so clients back off instead of piling up.
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorDetails> handleServiceOverloadedException(ServiceOverloadedException ex,
+                                                                         WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handles external calls that did not complete before the request deadline.
+     * Returns a 504 Gateway Timeout status.
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ErrorDetails> handleDeadlineExceededException(DeadlineExceededException ex,
+                                                                        WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    /**
+     * Handles calls refused because an external service is unavailable (open circuit breaker).
+     * Returns a 503 Service Unavailable status.
+     */
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<ErrorDetails> handleUpstreamUnavailableException(UpstreamUnavailableException ex,
+                                                                           WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Handles exceptions for scheduling conflicts.
      *
@@ -50,6 +129,49 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Handles changes to projects that are pending or rejected by the deferred validation.
+     *
+     * @param ex      the exception
+     * @param request the web request
+     * @return a ResponseEntity with 409 Conflict status.
+     */
+    @ExceptionHandler(ProjectNotModifiableException.class)
+    public ResponseEntity<ErrorDetails> handleProjectNotModifiableException(ProjectNotModifiableException ex,
+                                                                            WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles exceptions for failed If-Match preconditions.
+     *
+     * @param ex      the exception
+     * @param request the web request
+     * @return a ResponseEntity with 412 Precondition Failed status.
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorDetails> handlePreconditionFailedException(PreconditionFailedException ex,
+                                                                          WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Handles concurrent modifications detected by the optimistic version check.
+     *
+     * @param ex      the exception
+     * @param request the web request
+     * @return a ResponseEntity with 409 Conflict status.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDetails> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex,
+                                                                                WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), "The resource was modified concurrently, please retry",
+                request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorDetails> handleAllOtherExceptions(Exception ex, WebRequest request) {
         ErrorDetails errorDetails = new ErrorDetails(new Date(), "An unexpected internal error occurred",
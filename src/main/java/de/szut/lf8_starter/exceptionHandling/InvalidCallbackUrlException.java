@@ -0,0 +1,15 @@
+package de.szut.lf8_starter.exceptionHandling;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the callback URL for a deferred validation is not an absolute http(s) URL.
+ * Results in a 400 Bad Request HTTP status.
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidCallbackUrlException extends RuntimeException {
+    public InvalidCallbackUrlException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package de.szut.lf8_starter.exceptionHandling;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the fields parameter of a read request names an unknown field.
+ * Results in a 400 Bad Request HTTP status.
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidFieldSelectionException extends RuntimeException {
+    public InvalidFieldSelectionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package de.szut.lf8_starter.exceptionHandling;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a JSON Merge Patch document cannot be applied to a resource.
+ * Results in a 400 Bad Request HTTP status.
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidPatchException extends RuntimeException {
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
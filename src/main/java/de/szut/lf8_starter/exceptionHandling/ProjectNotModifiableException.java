@@ -0,0 +1,15 @@
+package de.szut.lf8_starter.exceptionHandling;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a project is changed while it is pending or after it was rejected by the deferred validation.
+ * Results in a 409 Conflict HTTP status.
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ProjectNotModifiableException extends RuntimeException {
+    public ProjectNotModifiableException(String message) {
+        super(message);
+    }
+}
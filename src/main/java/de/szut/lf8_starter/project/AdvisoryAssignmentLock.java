@@ -0,0 +1,34 @@
+package de.szut.lf8_starter.project;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Cluster-wide {@link AssignmentLock} based on Postgres transaction-level advisory locks.
+ * The action runs inside a transaction, and the locks are released automatically on commit or rollback.
+ */
+@Component
+@ConditionalOnProperty(value = "project.assignment-lock.mode", havingValue = "advisory")
+@RequiredArgsConstructor
+public class AdvisoryAssignmentLock implements AssignmentLock {
+
+    private static final int PROJECT_LOCK_SPACE = 1;
+    private static final int EMPLOYEE_LOCK_SPACE = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public <T> T withLock(Long projectId, Long employeeId, Supplier<T> action) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, ?)", PROJECT_LOCK_SPACE, Long.hashCode(projectId));
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, ?)", EMPLOYEE_LOCK_SPACE, Long.hashCode(employeeId));
+            return action.get();
+        });
+    }
+}
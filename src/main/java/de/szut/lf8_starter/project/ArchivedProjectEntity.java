@@ -0,0 +1,67 @@
+package de.szut.lf8_starter.project;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Read-only view of a finished or cancelled project that was moved out of the hot 'projects' table
+ * by the {@link ProjectArchiver}. Rows are only written by the archiver's SQL, never through JPA.
+ */
+@Entity
+@Table(name = "projects_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ArchivedProjectEntity {
+
+    /**
+     * The original ID of the project, kept so that links to the project stay valid.
+     */
+    @Id
+    private Long id;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "responsible_employee_id", nullable = false)
+    private Long responsibleEmployeeId;
+
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private ProjectStatus status;
+
+    @Column(name = "version")
+    private Long version;
+
+    /**
+     * The point in time at which the project was moved to the archive.
+     */
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * The team of the project at the time it was archived.
+     */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "project_employees_archive", joinColumns = @JoinColumn(name = "project_id"))
+    @Column(name = "employee_id")
+    private Set<Long> employeeIds;
+}
@@ -0,0 +1,18 @@
+package de.szut.lf8_starter.project;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the {@link ArchivedProjectEntity}.
+ * Only used when a client explicitly asks to include archived projects.
+ */
+@Repository
+public interface ArchivedProjectRepository extends JpaRepository<ArchivedProjectEntity, Long> {
+
+    List<ArchivedProjectEntity> findByResponsibleEmployeeId(Long employeeId);
+
+    List<ArchivedProjectEntity> findByEmployeeIdsContaining(Long employeeId);
+}
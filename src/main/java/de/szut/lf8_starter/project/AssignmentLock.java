@@ -0,0 +1,21 @@
+package de.szut.lf8_starter.project;
+
+import java.util.function.Supplier;
+
+/**
+ * Serialises concurrent membership changes that touch the same project or the same employee.
+ * Implementations lock on the project first and on the employee second, so callers can never deadlock,
+ * while assignments for unrelated projects and employees proceed in parallel.
+ */
+public interface AssignmentLock {
+
+    /**
+     * Runs the given action while holding the locks for the project and the employee.
+     *
+     * @param projectId  the ID of the project whose team is changed.
+     * @param employeeId the ID of the employee who is added or removed.
+     * @param action     the load-mutate-save sequence to protect.
+     * @return the result of the action.
+     */
+    <T> T withLock(Long projectId, Long employeeId, Supplier<T> action);
+}
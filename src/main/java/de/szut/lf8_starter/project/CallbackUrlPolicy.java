@@ -0,0 +1,86 @@
+package de.szut.lf8_starter.project;
+
+import de.szut.lf8_starter.exceptionHandling.InvalidCallbackUrlException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decides where the results of deferred validations may be sent.
+ * Only http(s) URLs on a host listed in project.deferred-validation.callback.allowed-hosts are accepted, and only
+ * if the host does not resolve to a loopback, link-local, private or other internal address. Without allowed hosts,
+ * callbacks are disabled. URLs are checked when the project is created and again before each callback, so that
+ * a host that resolves differently in the meantime is not called.
+ */
+@Component
+public class CallbackUrlPolicy {
+
+    private final Set<String> allowedHosts;
+
+    public CallbackUrlPolicy(@Value("${project.deferred-validation.callback.allowed-hosts:}") List<String> allowedHosts) {
+        this.allowedHosts = allowedHosts.stream()
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Checks that a callback URL may be called.
+     * Throws an InvalidCallbackUrlException if it is not an absolute http(s) URL on an allowed, public host.
+     *
+     * @param callbackUrl the URL given by the client.
+     * @return the parsed URL.
+     */
+    public URI requireAllowed(String callbackUrl) {
+        URI uri = parse(callbackUrl);
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (!allowedHosts.contains(host)) {
+            throw new InvalidCallbackUrlException("X-Callback-Url '" + callbackUrl + "' points to a host that is not allowed.");
+        }
+        try {
+            for (InetAddress address : InetAddress.getAllByName(host)) {
+                if (isInternal(address)) {
+                    throw new InvalidCallbackUrlException("X-Callback-Url '" + callbackUrl + "' points to an internal address.");
+                }
+            }
+        } catch (UnknownHostException e) {
+            throw new InvalidCallbackUrlException("X-Callback-Url '" + callbackUrl + "' points to an unknown host.");
+        }
+        return uri;
+    }
+
+    private static URI parse(String callbackUrl) {
+        try {
+            URI uri = new URI(callbackUrl.trim());
+            if (uri.isAbsolute() && uri.getHost() != null
+                    && ("http".equals(uri.getScheme()) || "https".equals(uri.getScheme()))) {
+                return uri;
+            }
+        } catch (URISyntaxException e) {
+            // reported below
+        }
+        throw new InvalidCallbackUrlException("X-Callback-Url '" + callbackUrl + "' is not an absolute http(s) URL.");
+    }
+
+    /**
+     * Returns true for addresses inside the server's own network: wildcard, loopback, link-local (including cloud
+     * metadata endpoints), private IPv4 ranges, IPv6 unique local addresses and multicast.
+     */
+    private static boolean isInternal(InetAddress address) {
+        return address.isAnyLocalAddress()
+                || address.isLoopbackAddress()
+                || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress()
+                || address.isMulticastAddress()
+                || address instanceof Inet6Address && (address.getAddress()[0] & 0xfe) == 0xfc;
+    }
+}
@@ -0,0 +1,269 @@
+package de.szut.lf8_starter.project;
+
+import de.szut.lf8_starter.employee.EmployeeClient;
+import de.szut.lf8_starter.exceptionHandling.InvalidCallbackUrlException;
+import de.szut.lf8_starter.project.dto.ProjectGetDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background validation of projects that were created with deferred validation (status PENDING_VALIDATION).
+ * A pool of workers takes pending projects from the queue in batches, validates the distinct employees of a batch
+ * once and then promotes each project to its requested status or rejects it with the reason.
+ * If the client gave a callback URL, the final project is POSTed to it with a client of its own, which does not share
+ * the timeouts of the employee service calls; the URL is checked against the {@link CallbackUrlPolicy} again right before.
+ * The queue lives in memory, but the requested status and callback URL are stored with the project. Once the
+ * application is ready, projects still pending from before a restart are queued again in service-account mode; in
+ * forward mode the caller's token is gone, so they are rejected and the client has to create them again. With several
+ * instances, a restarting instance also picks up projects another instance is still validating; promotion and
+ * rejection only apply to projects that are still pending, so each project is decided once.
+ */
+@Slf4j
+@Component
+public class DeferredProjectValidator {
+
+    private final ProjectRepository projectRepository;
+    private final ProjectMapper projectMapper;
+    private final EmployeeClient employeeClient;
+    private final CallbackUrlPolicy callbackUrlPolicy;
+    private final RestTemplate callbackTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+
+    private final BlockingQueue<Job> queue = new LinkedBlockingQueue<>();
+    private ExecutorService workerPool;
+    private ScheduledExecutorService retryScheduler;
+
+    public DeferredProjectValidator(ProjectRepository projectRepository,
+                                    ProjectMapper projectMapper,
+                                    EmployeeClient employeeClient,
+                                    CallbackUrlPolicy callbackUrlPolicy,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${project.deferred-validation.enabled:true}") boolean enabled,
+                                    @Value("${project.deferred-validation.workers:4}") int workers,
+                                    @Value("${project.deferred-validation.batch-size:100}") int batchSize,
+                                    @Value("${project.deferred-validation.max-attempts:3}") int maxAttempts,
+                                    @Value("${project.deferred-validation.retry-delay-ms:2000}") long retryDelayMillis,
+                                    @Value("${project.deferred-validation.callback.timeout:PT5S}") Duration callbackTimeout) {
+        this.projectRepository = projectRepository;
+        this.projectMapper = projectMapper;
+        this.employeeClient = employeeClient;
+        this.callbackUrlPolicy = callbackUrlPolicy;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(callbackTimeout);
+        requestFactory.setReadTimeout(callbackTimeout);
+        this.callbackTemplate = new RestTemplate(requestFactory);
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        workerPool = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("deferred-validation-", 0).factory());
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("deferred-validation-retry").factory());
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::work);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!enabled) {
+            return;
+        }
+        retryScheduler.shutdownNow();
+        workerPool.shutdownNow();
+    }
+
+    /**
+     * Returns true if clients may request deferred validation.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a stored pending project for validation.
+     *
+     * @param projectId       the ID of the project in status PENDING_VALIDATION.
+     * @param requestedStatus the status the project gets once it is valid.
+     * @param bearerToken     the authorization token for the employee service.
+     * @param callbackUrl     where the validated or rejected project is POSTed, or null.
+     */
+    public void enqueue(Long projectId, ProjectStatus requestedStatus, String bearerToken, String callbackUrl) {
+        // with the service account the caller's token is not needed and is not kept until the job runs
+        String token = employeeClient.usesServiceAccount() ? null : bearerToken;
+        queue.add(new Job(projectId, requestedStatus, token, callbackUrl, 1));
+    }
+
+    /**
+     * Picks up the projects that were still pending when the application stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPending() {
+        if (!enabled) {
+            return;
+        }
+        List<Job> jobs = transactionTemplate.execute(status -> projectRepository.findByStatus(ProjectStatus.PENDING_VALIDATION).stream()
+                .map(project -> new Job(project.getId(),
+                        project.getRequestedStatus() != null ? project.getRequestedStatus() : ProjectStatus.PLANNED,
+                        null, project.getCallbackUrl(), 1))
+                .toList());
+        if (jobs.isEmpty()) {
+            return;
+        }
+        if (employeeClient.usesServiceAccount()) {
+            log.info("Resuming the deferred validation of {} pending projects", jobs.size());
+            queue.addAll(jobs);
+        } else {
+            log.warn("Rejecting {} pending projects, their validation was interrupted by a restart", jobs.size());
+            jobs.forEach(job -> reject(job, "The validation was interrupted by a restart. Please create the project again."));
+        }
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Job> batch = new ArrayList<>();
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                validate(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Deferred validation batch failed", e);
+            }
+        }
+    }
+
+    private void validate(List<Job> batch) {
+        Map<String, List<Job>> jobsByToken = new LinkedHashMap<>();
+        batch.forEach(job -> jobsByToken.computeIfAbsent(job.bearerToken(), token -> new ArrayList<>()).add(job));
+
+        jobsByToken.forEach((bearerToken, jobs) -> {
+            // Read-write transactions keep these reads on the primary, a replica may not have the new projects yet.
+            Map<Long, Set<Long>> employeesByProject = new LinkedHashMap<>();
+            transactionTemplate.executeWithoutResult(status -> projectRepository.findAllById(jobs.stream().map(Job::projectId).toList())
+                    .forEach(project -> employeesByProject.put(project.getId(), employeesOf(project))));
+            Set<Long> employeeIds = new HashSet<>();
+            employeesByProject.values().forEach(employeeIds::addAll);
+
+            Set<Long> missing;
+            try {
+                missing = employeeClient.findMissing(employeeIds, bearerToken);
+            } catch (RuntimeException e) {
+                log.warn("Employee validation of {} pending projects failed: {}", jobs.size(), e.getMessage());
+                jobs.forEach(job -> retryOrReject(job, e));
+                return;
+            }
+
+            for (Job job : jobs) {
+                Set<Long> employees = employeesByProject.get(job.projectId());
+                if (employees == null) {
+                    continue;
+                }
+                employees.stream()
+                        .filter(missing::contains)
+                        .findFirst()
+                        .ifPresentOrElse(
+                                employeeId -> reject(job, "Employee with ID " + employeeId + " not found."),
+                                () -> promote(job));
+            }
+        });
+    }
+
+    private static Set<Long> employeesOf(ProjectEntity project) {
+        Set<Long> employees = new HashSet<>(project.getEmployeeIds());
+        employees.add(project.getResponsibleEmployeeId());
+        return employees;
+    }
+
+    private void retryOrReject(Job job, RuntimeException cause) {
+        if (job.attempt() >= maxAttempts) {
+            reject(job, "Employee validation failed: " + cause.getMessage());
+            return;
+        }
+        Job retry = new Job(job.projectId(), job.requestedStatus(), job.bearerToken(), job.callbackUrl(), job.attempt() + 1);
+        retryScheduler.schedule(() -> queue.add(retry), retryDelayMillis * job.attempt(), TimeUnit.MILLISECONDS);
+    }
+
+    private void promote(Job job) {
+        if (projectRepository.promotePendingProject(job.projectId(), job.requestedStatus().name()) > 0) {
+            notifyCallback(job);
+        }
+    }
+
+    private void reject(Job job, String reason) {
+        Boolean rejected = transactionTemplate.execute(status -> {
+            if (projectRepository.rejectPendingProject(job.projectId(), reason) == 0) {
+                return false;
+            }
+            projectRepository.deleteAssignments(job.projectId());
+            return true;
+        });
+        if (Boolean.TRUE.equals(rejected)) {
+            notifyCallback(job);
+        }
+    }
+
+    private void notifyCallback(Job job) {
+        if (job.callbackUrl() == null) {
+            return;
+        }
+        URI callbackUrl;
+        try {
+            callbackUrl = callbackUrlPolicy.requireAllowed(job.callbackUrl());
+        } catch (InvalidCallbackUrlException e) {
+            log.warn("Callback for project {} skipped: {}", job.projectId(), e.getMessage());
+            return;
+        }
+        ProjectGetDto project = transactionTemplate.execute(status -> projectRepository.findById(job.projectId())
+                .map(projectMapper::mapEntityToGetDto)
+                .orElse(null));
+        if (project != null) {
+            try {
+                callbackTemplate.postForEntity(callbackUrl, project, Void.class);
+            } catch (RestClientException e) {
+                log.warn("Callback for project {} to {} failed: {}", job.projectId(), job.callbackUrl(), e.getMessage());
+            }
+        }
+    }
+
+    private record Job(Long projectId, ProjectStatus requestedStatus, String bearerToken, String callbackUrl, int attempt) {
+    }
+}
@@ -0,0 +1,95 @@
+package de.szut.lf8_starter.project;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Moves finished and cancelled projects whose end date lies further back than the configured age
+ * from 'projects' and 'project_employees' into 'projects_archive' and 'project_employees_archive'.
+ * This keeps the hot tables, and with them every list and availability query, small.
+ */
+@Slf4j
+@Component
+public class ProjectArchiver {
+
+    private static final String SELECT_ARCHIVABLE = """
+            SELECT id FROM projects
+            WHERE status IN ('FINISHED', 'CANCELLED') AND end_date < ?
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED""";
+
+    private static final String COPY_PROJECTS = """
+            INSERT INTO projects_archive (id, name, description, customer_id, responsible_employee_id,
+                                          start_date, end_date, status, version, archived_at)
+            SELECT id, name, description, customer_id, responsible_employee_id,
+                   start_date, end_date, status, version, now()
+            FROM projects WHERE id = ANY (?)""";
+
+    private static final String COPY_MEMBERS = """
+            INSERT INTO project_employees_archive (project_id, employee_id)
+            SELECT project_id, employee_id FROM project_employees WHERE project_id = ANY (?)""";
+
+    private static final String DELETE_MEMBERS = "DELETE FROM project_employees WHERE project_id = ANY (?)";
+
+    private static final String DELETE_PROJECTS = "DELETE FROM projects WHERE id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int batchSize;
+
+    public ProjectArchiver(JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${project.archive.min-age:P365D}") Duration minAge,
+                           @Value("${project.archive.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Archives all eligible projects in batches, each batch in its own short transaction.
+     *
+     * @return the number of archived projects.
+     */
+    @Scheduled(cron = "${project.archive.cron:0 30 2 * * *}")
+    public int archiveClosedProjects() {
+        LocalDate cutoff = LocalDate.now().minusDays(minAge.toDays());
+        int archived = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            archived += moved;
+        } while (moved == batchSize);
+
+        if (archived > 0) {
+            log.info("Archived {} closed projects that ended before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private int archiveBatch(LocalDate cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_ARCHIVABLE, Long.class, Date.valueOf(cutoff), batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        PreparedStatementSetter idArray = ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+        jdbcTemplate.update(COPY_PROJECTS, idArray);
+        jdbcTemplate.update(COPY_MEMBERS, idArray);
+        jdbcTemplate.update(DELETE_MEMBERS, idArray);
+        jdbcTemplate.update(DELETE_PROJECTS, idArray);
+        return ids.size();
+    }
+}
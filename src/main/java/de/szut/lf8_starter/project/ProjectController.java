@@ -1,16 +1,29 @@
 package de.szut.lf8_starter.project;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import de.szut.lf8_starter.exceptionHandling.InvalidFieldSelectionException;
+import de.szut.lf8_starter.exceptionHandling.PreconditionFailedException;
 import de.szut.lf8_starter.project.dto.AddEmployeeToProjectDto;
 import de.szut.lf8_starter.project.dto.GetEmployeesOfProjectDto;
 import de.szut.lf8_starter.project.dto.ProjectCreateDto;
 import de.szut.lf8_starter.project.dto.ProjectGetDto;
+import de.szut.lf8_starter.project.dto.ProjectImportResultDto;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Controller for handling project-related HTTP requests.
@@ -23,28 +36,73 @@ import java.util.List;
 public class ProjectController implements ProjectControllerOpenAPI {
 
     private final ProjectService projectService;
+    private final CallbackUrlPolicy callbackUrlPolicy;
 
     @Override
     @PostMapping
     public ResponseEntity<ProjectGetDto> createProject(
             @Valid @RequestBody ProjectCreateDto createDto,
-            @RequestHeader("Authorization") String bearerToken) {
+            @RequestHeader("Authorization") String bearerToken,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @RequestHeader(value = "X-Callback-Url", required = false) String callbackUrl) {
+        if (prefer != null && prefer.contains("respond-async") && projectService.supportsDeferredValidation()) {
+            ProjectGetDto pendingProject = projectService.createDeferred(createDto, bearerToken, parseCallbackUrl(callbackUrl));
+            return ResponseEntity.accepted()
+                    .location(URI.create("/projects/" + pendingProject.getId()))
+                    .header("Preference-Applied", "respond-async")
+                    .eTag(String.valueOf(pendingProject.getVersion()))
+                    .body(pendingProject);
+        }
         ProjectGetDto createdProject = projectService.create(createDto, bearerToken);
-        return new ResponseEntity<>(createdProject, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(String.valueOf(createdProject.getVersion())).body(createdProject);
     }
 
     @Override
-    @GetMapping
-    public ResponseEntity<List<ProjectGetDto>> getAllProjects() {
-        List<ProjectGetDto> projects = projectService.readAll();
+    @PostMapping(path = "/import", consumes = {ProjectImporter.CSV, ProjectImporter.NDJSON})
+    public ResponseEntity<ProjectImportResultDto> importProjects(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader("Authorization") String bearerToken) throws IOException {
+        boolean ndjson = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(ProjectImporter.NDJSON));
+        return ResponseEntity.ok(projectService.importProjects(body, ndjson, bearerToken));
+    }
+
+    @Override
+    @GetMapping(params = "!fields")
+    public ResponseEntity<List<ProjectGetDto>> getAllProjects(@RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<ProjectGetDto> projects = projectService.readAll(includeArchived);
         return ResponseEntity.ok(projects);
     }
 
     @Override
-    @GetMapping("/{id}")
-    public ResponseEntity<ProjectGetDto> getProjectById(@PathVariable Long id) {
-        ProjectGetDto project = projectService.readById(id);
-        return ResponseEntity.ok(project);
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllProjectFields(@RequestParam(defaultValue = "false") boolean includeArchived,
+                                                                         @RequestParam String fields) {
+        return ResponseEntity.ok(projectService.readAll(selection(fields), includeArchived));
+    }
+
+    @Override
+    @GetMapping(path = "/{id}", params = "!fields")
+    public ResponseEntity<ProjectGetDto> getProjectById(@PathVariable Long id,
+                                                        @RequestParam(defaultValue = "false") boolean includeArchived) {
+        ProjectGetDto project = projectService.readById(id, includeArchived);
+        return ResponseEntity.ok().eTag(String.valueOf(project.getVersion())).body(project);
+    }
+
+    @Override
+    @GetMapping(path = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getProjectFieldsById(@PathVariable Long id,
+                                                                    @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                                    @RequestParam String fields) {
+        Set<ProjectField> selection = selection(fields);
+        // the version is always read for the ETag, but only returned if it was selected
+        Set<ProjectField> columns = EnumSet.copyOf(selection);
+        columns.add(ProjectField.VERSION);
+        Map<String, Object> project = new LinkedHashMap<>(projectService.readById(id, columns, includeArchived));
+        Object version = selection.contains(ProjectField.VERSION)
+                ? project.get(ProjectField.VERSION.getName())
+                : project.remove(ProjectField.VERSION.getName());
+        return ResponseEntity.ok().eTag(String.valueOf(version)).body(project);
     }
 
     @Override
@@ -52,10 +110,23 @@ public class ProjectController implements ProjectControllerOpenAPI {
     public ResponseEntity<ProjectGetDto> updateProject(
             @PathVariable Long id,
             @Valid @RequestBody ProjectCreateDto updateDto,
-            @RequestHeader("Authorization") String bearerToken) {
+            @RequestHeader("Authorization") String bearerToken,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+
+        ProjectGetDto updatedProject = projectService.update(id, updateDto, bearerToken, parseVersion(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(updatedProject.getVersion())).body(updatedProject);
+    }
+
+    @Override
+    @PatchMapping(path = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ProjectGetDto> patchProject(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @RequestHeader("Authorization") String bearerToken,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
 
-        ProjectGetDto updatedProject = projectService.update(id, updateDto, bearerToken);
-        return ResponseEntity.ok(updatedProject);
+        ProjectGetDto patchedProject = projectService.patch(id, patch, bearerToken, parseVersion(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(patchedProject.getVersion())).body(patchedProject);
     }
 
     @Override
@@ -69,28 +140,95 @@ public class ProjectController implements ProjectControllerOpenAPI {
     @PostMapping("/{projectId}/employees")
     public ResponseEntity<ProjectGetDto> addEmployeeToProject(@PathVariable Long projectId,
                                                               @Valid @RequestBody AddEmployeeToProjectDto dto,
-                                                              @RequestHeader("Authorization") String bearerToken) {
-        ProjectGetDto updatedProject = projectService.addEmployeeToProject(projectId, dto.getEmployeeId(), bearerToken);
-        return ResponseEntity.ok(updatedProject);
+                                                              @RequestHeader("Authorization") String bearerToken,
+                                                              @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        ProjectGetDto updatedProject = projectService.addEmployeeToProject(projectId, dto.getEmployeeId(), bearerToken, parseVersion(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(updatedProject.getVersion())).body(updatedProject);
     }
 
     @Override
     @DeleteMapping("/{projectId}/employees/{employeeId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void removeEmployeeFromProject(@PathVariable Long projectId, @PathVariable Long employeeId) {
-        projectService.removeEmployeeFromProject(projectId, employeeId);
+    public void removeEmployeeFromProject(@PathVariable Long projectId, @PathVariable Long employeeId,
+                                          @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        projectService.removeEmployeeFromProject(projectId, employeeId, parseVersion(ifMatch));
     }
 
     @Override
     @GetMapping("/{projectId}/employees")
-    public ResponseEntity<GetEmployeesOfProjectDto> getEmployeesOfProject(@PathVariable Long projectId) {
-        GetEmployeesOfProjectDto employeesDto = projectService.getEmployeesOfProject(projectId);
+    public ResponseEntity<GetEmployeesOfProjectDto> getEmployeesOfProject(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String expand,
+            @RequestHeader(value = "Authorization", required = false) String bearerToken) {
+        GetEmployeesOfProjectDto employeesDto = projectService.getEmployeesOfProject(projectId, parseExpand(expand), bearerToken);
         return ResponseEntity.ok(employeesDto);
     }
 
-    @GetMapping(path = "/employees/{employeeId}/projects")
-    public ResponseEntity<List<ProjectGetDto>> getProjectsOfEmployee(@PathVariable Long employeeId) {
-        List<ProjectGetDto> projects = projectService.getProjectsOfEmployee(employeeId);
+    @Override
+    @GetMapping(path = "/employees/{employeeId}/projects", params = "!fields")
+    public ResponseEntity<List<ProjectGetDto>> getProjectsOfEmployee(@PathVariable Long employeeId,
+                                                                     @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<ProjectGetDto> projects = projectService.getProjectsOfEmployee(employeeId, includeArchived);
         return ResponseEntity.ok(projects);
     }
-}
\ No newline at end of file
+
+    @Override
+    @GetMapping(path = "/employees/{employeeId}/projects", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getProjectFieldsOfEmployee(@PathVariable Long employeeId,
+                                                                                @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                                                @RequestParam String fields) {
+        return ResponseEntity.ok(projectService.getProjectsOfEmployee(employeeId, selection(fields), includeArchived));
+    }
+
+    /**
+     * Parses the fields parameter; an empty value selects all fields.
+     */
+    private static Set<ProjectField> selection(String fields) {
+        Set<ProjectField> selection = ProjectField.parse(fields);
+        return selection != null ? selection : EnumSet.allOf(ProjectField.class);
+    }
+
+    /**
+     * Returns true for expand=employees, false without expand. Other values are rejected.
+     */
+    private static boolean parseExpand(String expand) {
+        if (expand == null || expand.isBlank()) {
+            return false;
+        }
+        if (expand.trim().equals("employees")) {
+            return true;
+        }
+        throw new InvalidFieldSelectionException("Unknown expand value '" + expand + "', supported: employees");
+    }
+
+    /**
+     * Checks that a callback URL may be called, see {@link CallbackUrlPolicy}. Returns null for a missing header.
+     */
+    private String parseCallbackUrl(String callbackUrl) {
+        if (callbackUrl == null || callbackUrl.isBlank()) {
+            return null;
+        }
+        return callbackUrlPolicy.requireAllowed(callbackUrl).toString();
+    }
+
+    /**
+     * Extracts the project version from an If-Match header value such as "3".
+     * Returns null for a missing header or the wildcard "*", which means no version check.
+     * If-Match uses the strong comparison (RFC 9110, 13.1.1), so a weak tag such as W/"3" never matches.
+     */
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match header '" + ifMatch + "' is a weak entity tag, which never matches.");
+        }
+        tag = tag.replace("\"", "");
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match header '" + ifMatch + "' does not match any project version.");
+        }
+    }
+}
@@ -1,66 +1,131 @@
 package de.szut.lf8_starter.project;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import de.szut.lf8_starter.exceptionHandling.ErrorDetails;
 import de.szut.lf8_starter.project.dto.AddEmployeeToProjectDto;
 import de.szut.lf8_starter.project.dto.GetEmployeesOfProjectDto;
 import de.szut.lf8_starter.project.dto.ProjectCreateDto;
 import de.szut.lf8_starter.project.dto.ProjectGetDto;
+import de.szut.lf8_starter.project.dto.ProjectImportResultDto;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 /**
  * OpenAPI definition for the Project Controller.
  * This interface defines all endpoints related to projects, including their documentation.
+ * Reads with a fields selection are separate handler methods; they are hidden and documented as a oneOf
+ * alternative on the full read, since both share the same path.
  */
 public interface ProjectControllerOpenAPI {
 
-    @Operation(summary = "Creates a new project.", description = "Creates a new project with the given data. Validates the existence of the responsible employee and all team members.")
+    /**
+     * Schema of a project read with fields: an object with only the selected properties of ProjectGetDto.
+     */
+    @Schema(name = "ProjectFields", description = "A project with only the properties selected with fields, e.g. {\"id\": 1, \"name\": \"...\"}")
+    final class ProjectFields {
+    }
+
+    @Operation(summary = "Creates a new project.", description = "Creates a new project with the given data. Validates the existence of the responsible employee and all team members. With the header 'Prefer: respond-async' the project is stored immediately in status PENDING_VALIDATION and validated in the background; poll the Location or pass X-Callback-Url (only hosts from project.deferred-validation.callback.allowed-hosts) to receive the result. The statuses PENDING_VALIDATION and REJECTED cannot be requested.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Project created successfully", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProjectGetDto.class))}),
-            @ApiResponse(responseCode = "400", description = "Invalid input data (e.g., name is missing)", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))}),
+            @ApiResponse(responseCode = "202", description = "Project stored, validation is pending", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProjectGetDto.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid input data (e.g., name is missing) or callback URL", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))}),
             @ApiResponse(responseCode = "401", description = "Not authorized", content = @Content),
             @ApiResponse(responseCode = "404", description = "A specified employee was not found", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))})
     })
     ResponseEntity<ProjectGetDto> createProject(@Valid @RequestBody ProjectCreateDto createDto,
-                                                @RequestHeader("Authorization") String bearerToken);
+                                                @RequestHeader("Authorization") String bearerToken,
+                                                @RequestHeader(value = "Prefer", required = false) String prefer,
+                                                @RequestHeader(value = "X-Callback-Url", required = false) String callbackUrl);
+
+    @Operation(summary = "Imports projects in bulk.", description = "Streams a CSV (text/csv, with header line: name,description,customerId,responsibleEmployeeId,startDate,endDate,status,employeeIds separated by ';') or NDJSON (application/x-ndjson, one project per line) body. Every distinct employee is validated once. Invalid lines are reported with their line number and do not abort the import.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed, see the result for failed lines", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProjectImportResultDto.class))}),
+            @ApiResponse(responseCode = "401", description = "Not authorized", content = @Content),
+            @ApiResponse(responseCode = "415", description = "Unsupported content type", content = @Content)
+    })
+    ResponseEntity<ProjectImportResultDto> importProjects(InputStream body,
+                                                          @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                          @RequestHeader("Authorization") String bearerToken) throws IOException;
 
-    @Operation(summary = "Gets a list of all projects.", description = "Retrieves a complete list of all projects available in the system.")
+    @Operation(summary = "Gets a list of all projects.", description = "Retrieves a complete list of all active projects. Old finished or cancelled projects are archived and only included with includeArchived=true. With fields (e.g. fields=id,name,status) only the listed fields are read and returned; team members are only loaded if employeeIds is listed.",
+            parameters = @Parameter(name = "fields", in = ParameterIn.QUERY, description = "Comma-separated project fields to return, e.g. id,name,status"))
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "List of projects retrieved successfully"),
+            @ApiResponse(responseCode = "200", description = "List of projects retrieved successfully", content = {@Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(oneOf = {ProjectGetDto.class, ProjectFields.class})))}),
+            @ApiResponse(responseCode = "400", description = "Unknown field in fields", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))}),
             @ApiResponse(responseCode = "401", description = "Not authorized", content = @Content)
     })
-    ResponseEntity<List<ProjectGetDto>> getAllProjects();
+    ResponseEntity<List<ProjectGetDto>> getAllProjects(@RequestParam(defaultValue = "false") boolean includeArchived);
+
+    @Operation(hidden = true)
+    ResponseEntity<List<Map<String, Object>>> getAllProjectFields(@RequestParam(defaultValue = "false") boolean includeArchived,
+                                                                  @RequestParam String fields);
 
-    @Operation(summary = "Gets a single project by its ID.", description = "Retrieves the full details of a specific project by its unique ID.")
+    @Operation(summary = "Gets a single project by its ID.", description = "Retrieves the full details of a specific project by its unique ID. Archived projects are only found with includeArchived=true. With fields only the listed fields are returned. The ETag is the project version in both cases.",
+            parameters = @Parameter(name = "fields", in = ParameterIn.QUERY, description = "Comma-separated project fields to return, e.g. id,name,status"))
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Project found", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProjectGetDto.class))}),
+            @ApiResponse(responseCode = "200", description = "Project found", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(oneOf = {ProjectGetDto.class, ProjectFields.class}))}),
+            @ApiResponse(responseCode = "400", description = "Unknown field in fields", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))}),
             @ApiResponse(responseCode = "401", description = "Not authorized", content = @Content),
             @ApiResponse(responseCode = "404", description = "Project with the given ID not found", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))})
     })
-    ResponseEntity<ProjectGetDto> getProjectById(@PathVariable Long id);
+    ResponseEntity<ProjectGetDto> getProjectById(@PathVariable Long id,
+                                                 @RequestParam(defaultValue = "false") boolean includeArchived);
 
-    @Operation(summary = "Updates an existing project.", description = "Updates the details of an existing project identified by its ID. All fields are replaced with the new data.")
+    @Operation(hidden = true)
+    ResponseEntity<Map<String, Object>> getProjectFieldsById(@PathVariable Long id,
+                                                             @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                             @RequestParam String fields);
+
+    @Operation(summary = "Updates an existing project.", description = "Updates the details of an existing project identified by its ID. All fields are replaced with the new data. An optional If-Match header with the project's ETag makes the update conditional.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Project updated successfully", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProjectGetDto.class))}),
             @ApiResponse(responseCode = "400", description = "Invalid input data", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))}),
             @ApiResponse(responseCode = "401", description = "Not authorized", content = @Content),
-            @ApiResponse(responseCode = "404", description = "Project or a specified employee not found", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))})
+            @ApiResponse(responseCode = "404", description = "Project or a specified employee not found", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))}),
+            @ApiResponse(responseCode = "409", description = "The project is pending or rejected by the deferred validation, or an assigned employee is already scheduled in this timeframe", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))}),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current project version", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))})
     })
     ResponseEntity<ProjectGetDto> updateProject(@PathVariable Long id,
                                                 @Valid @RequestBody ProjectCreateDto updateDto,
-                                                @RequestHeader("Authorization") String bearerToken);
+                                                @RequestHeader("Authorization") String bearerToken,
+                                                @RequestHeader(value = "If-Match", required = false) String ifMatch);
+
+    @Operation(summary = "Partially updates an existing project.", description = "Applies a JSON Merge Patch (application/merge-patch+json) to the project. Only the supplied fields are changed, null removes a value, and the team is only changed if employeeIds is supplied.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Project patched successfully", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProjectGetDto.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid patch document or resulting data", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))}),
+            @ApiResponse(responseCode = "401", description = "Not authorized", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Project or a specified employee not found", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))}),
+            @ApiResponse(responseCode = "409", description = "The project is pending or rejected by the deferred validation, or an assigned employee is already scheduled in this timeframe", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))}),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current project version", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))})
+    })
+    ResponseEntity<ProjectGetDto> patchProject(@PathVariable Long id,
+                                               @RequestBody JsonNode patch,
+                                               @RequestHeader("Authorization") String bearerToken,
+                                               @RequestHeader(value = "If-Match", required = false) String ifMatch);
 
     @Operation(summary = "Deletes a project by its ID.", description = "Permanently deletes a project from the system.")
     @ApiResponses(value = {
@@ -76,33 +141,50 @@ public interface ProjectControllerOpenAPI {
             @ApiResponse(responseCode = "200", description = "Employee added successfully", content = @Content(schema = @Schema(implementation = ProjectGetDto.class))),
             @ApiResponse(responseCode = "401", description = "Not authorized"),
             @ApiResponse(responseCode = "404", description = "Project or employee not found"),
-            @ApiResponse(responseCode = "409", description = "Conflict, e.g., employee is already in the team or scheduled in this timeframe")
+            @ApiResponse(responseCode = "409", description = "Conflict, e.g., employee is already in the team or scheduled in this timeframe, or the project is pending or rejected"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current project version")
     })
     ResponseEntity<ProjectGetDto> addEmployeeToProject(@PathVariable Long projectId,
                                                        @Valid @RequestBody AddEmployeeToProjectDto dto,
-                                                       @RequestHeader("Authorization") String bearerToken);
+                                                       @RequestHeader("Authorization") String bearerToken,
+                                                       @RequestHeader(value = "If-Match", required = false) String ifMatch);
 
     @Operation(summary = "Removes an employee from a project team.", description = "Removes a specific employee from a specific project.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Employee removed successfully", content = @Content),
             @ApiResponse(responseCode = "401", description = "Not authorized", content = @Content),
-            @ApiResponse(responseCode = "404", description = "Project or employee assignment not found", content = @Content)
+            @ApiResponse(responseCode = "404", description = "Project or employee assignment not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "The project is pending or rejected by the deferred validation", content = @Content),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current project version", content = @Content)
     })
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    void removeEmployeeFromProject(@PathVariable Long projectId, @PathVariable Long employeeId);
+    void removeEmployeeFromProject(@PathVariable Long projectId, @PathVariable Long employeeId,
+                                   @RequestHeader(value = "If-Match", required = false) String ifMatch);
 
-    @Operation(summary = "Gets all employees of a project.", description = "Retrieves a list of all employee IDs assigned to a specific project.")
+    @Operation(summary = "Gets all employees of a project.", description = "Retrieves a list of all employee IDs assigned to a specific project. With expand=employees the details of the employees are fetched in parallel from the employee service (cached); employees that cannot be resolved within the timeout are listed in unresolvedEmployeeIds instead of failing the request.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Employee list retrieved successfully", content = @Content(schema = @Schema(implementation = GetEmployeesOfProjectDto.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown expand value", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))}),
             @ApiResponse(responseCode = "401", description = "Not authorized"),
             @ApiResponse(responseCode = "404", description = "Project not found")
     })
-    ResponseEntity<GetEmployeesOfProjectDto> getEmployeesOfProject(@PathVariable Long projectId);
+    ResponseEntity<GetEmployeesOfProjectDto> getEmployeesOfProject(@PathVariable Long projectId,
+                                                                   @RequestParam(required = false) String expand,
+                                                                   @RequestHeader(value = "Authorization", required = false) String bearerToken);
 
-    @Operation(summary = "Gets all projects for a specific employee.", description = "Retrieves a list of all projects a specific employee is assigned to.")
+    @Operation(summary = "Gets all projects for a specific employee.", description = "Retrieves a list of all projects a specific employee is assigned to. Archived projects are only included with includeArchived=true. With fields only the listed fields are returned.",
+            parameters = @Parameter(name = "fields", in = ParameterIn.QUERY, description = "Comma-separated project fields to return, e.g. id,name,status"))
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Project list retrieved successfully"),
+            @ApiResponse(responseCode = "200", description = "Project list retrieved successfully", content = {@Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(oneOf = {ProjectGetDto.class, ProjectFields.class})))}),
+            @ApiResponse(responseCode = "400", description = "Unknown field in fields", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDetails.class))}),
             @ApiResponse(responseCode = "401", description = "Not authorized")
     })
-    ResponseEntity<List<ProjectGetDto>> getProjectsOfEmployee(@PathVariable Long employeeId);
-}
\ No newline at end of file
+    ResponseEntity<List<ProjectGetDto>> getProjectsOfEmployee(@PathVariable Long employeeId,
+                                                              @RequestParam(defaultValue = "false") boolean includeArchived);
+
+    @Operation(hidden = true)
+    ResponseEntity<List<Map<String, Object>>> getProjectFieldsOfEmployee(@PathVariable Long employeeId,
+                                                                         @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                                         @RequestParam String fields);
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.util.Set;
@@ -11,8 +12,10 @@ import java.util.Set;
 /**
  * Represents a project in the database.
  * This entity contains all core information about a project.
+ * Updates only write the columns that actually changed.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "projects")
 @Getter
 @Setter
@@ -74,6 +77,34 @@ public class ProjectEntity {
     @Column(name = "status")
     private ProjectStatus status;
 
+    /**
+     * Why the deferred validation rejected the project; null for all other projects.
+     */
+    @Column(name = "validation_error")
+    private String validationError;
+
+    /**
+     * The status a pending project gets once the deferred validation passes; null for all other projects.
+     * Stored so that pending projects can be validated again after a restart.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "requested_status")
+    private ProjectStatus requestedStatus;
+
+    /**
+     * Where the result of the deferred validation is POSTed; null if the client polls, and for all other projects.
+     */
+    @Column(name = "callback_url")
+    private String callbackUrl;
+
+    /**
+     * Optimistic locking version, incremented by Hibernate on every change (including team changes).
+     * Exposed to clients as the ETag and checked against the If-Match header.
+     */
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     /**
      * A set of employee IDs who are assigned to this project.
      * Stored in a separate table 'project_employees' and loaded eagerly.
@@ -0,0 +1,61 @@
+package de.szut.lf8_starter.project;
+
+import de.szut.lf8_starter.exceptionHandling.InvalidFieldSelectionException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The fields of a project that can be selected with the fields parameter of the read endpoints.
+ * The names match both the JSON properties of ProjectGetDto and the attributes of the project entities.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ProjectField {
+
+    ID("id"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    CUSTOMER_ID("customerId"),
+    RESPONSIBLE_EMPLOYEE_ID("responsibleEmployeeId"),
+    START_DATE("startDate"),
+    END_DATE("endDate"),
+    STATUS("status"),
+    VALIDATION_ERROR("validationError"),
+    EMPLOYEE_IDS("employeeIds"),
+    VERSION("version");
+
+    private final String name;
+
+    /**
+     * Returns true if the field is a column of the given entity's table, false for the team collection.
+     * Archived projects are finished or cancelled and never carry a validation error, so it is not a column there.
+     */
+    public boolean isColumnOf(Class<?> entityClass) {
+        return this != EMPLOYEE_IDS && (this != VALIDATION_ERROR || entityClass == ProjectEntity.class);
+    }
+
+    /**
+     * Parses a comma-separated list of field names, e.g. "id,name,status".
+     *
+     * @param fields the value of the fields parameter.
+     * @return the selected fields, or null if no selection was given, meaning all fields.
+     */
+    public static Set<ProjectField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<ProjectField> selection = EnumSet.noneOf(ProjectField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            selection.add(Arrays.stream(values())
+                    .filter(field -> field.name.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidFieldSelectionException("Unknown project field '" + trimmed + "'.")));
+        }
+        return selection;
+    }
+}
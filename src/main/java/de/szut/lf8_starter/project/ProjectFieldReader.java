@@ -0,0 +1,92 @@
+package de.szut.lf8_starter.project;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Reads projects with a sparse fieldset: the select list only contains the requested columns,
+ * and the project_employees table is only queried if employeeIds is requested.
+ * Works for both {@link ProjectEntity} and {@link ArchivedProjectEntity}, which share their attribute names.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectFieldReader {
+
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private final EntityManager entityManager;
+
+    public List<Map<String, Object>> findAll(Class<?> entityClass, Set<ProjectField> fields) {
+        return find(entityClass, fields, "", Map.of());
+    }
+
+    public List<Map<String, Object>> findById(Class<?> entityClass, Long id, Set<ProjectField> fields) {
+        return find(entityClass, fields, "WHERE p.id = :id", Map.of("id", id));
+    }
+
+    public List<Map<String, Object>> findByEmployee(Class<?> entityClass, Long employeeId, Set<ProjectField> fields) {
+        return find(entityClass, fields,
+                "WHERE p.responsibleEmployeeId = :employeeId OR :employeeId MEMBER OF p.employeeIds",
+                Map.of("employeeId", employeeId));
+    }
+
+    private List<Map<String, Object>> find(Class<?> entityClass, Set<ProjectField> fields, String where, Map<String, Object> parameters) {
+        List<ProjectField> columns = fields.stream()
+                .filter(field -> field.isColumnOf(entityClass))
+                .filter(field -> field != ProjectField.ID)
+                .toList();
+
+        StringBuilder jpql = new StringBuilder("SELECT p.id");
+        columns.forEach(column -> jpql.append(", p.").append(column.getName()));
+        jpql.append(" FROM ").append(entityClass.getSimpleName()).append(" p ").append(where).append(" ORDER BY p.id");
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        parameters.forEach(query::setParameter);
+
+        Map<Long, Map<String, Object>> projects = new LinkedHashMap<>();
+        for (Tuple row : query.getResultList()) {
+            Long id = row.get(0, Long.class);
+            Map<String, Object> project = new LinkedHashMap<>();
+            for (ProjectField field : fields) {
+                if (field == ProjectField.ID) {
+                    project.put(field.getName(), id);
+                } else if (field == ProjectField.EMPLOYEE_IDS) {
+                    project.put(field.getName(), new TreeSet<Long>());
+                } else if (!columns.contains(field)) {
+                    project.put(field.getName(), null);
+                } else {
+                    project.put(field.getName(), row.get(columns.indexOf(field) + 1));
+                }
+            }
+            projects.put(id, project);
+        }
+
+        if (fields.contains(ProjectField.EMPLOYEE_IDS) && !projects.isEmpty()) {
+            loadEmployeeIds(entityClass, projects);
+        }
+        return new ArrayList<>(projects.values());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadEmployeeIds(Class<?> entityClass, Map<Long, Map<String, Object>> projects) {
+        List<Long> ids = new ArrayList<>(projects.keySet());
+        String jpql = "SELECT p.id, e FROM " + entityClass.getSimpleName() + " p JOIN p.employeeIds e WHERE p.id IN :ids";
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+            for (Tuple row : entityManager.createQuery(jpql, Tuple.class).setParameter("ids", chunk).getResultList()) {
+                Set<Long> employeeIds = (Set<Long>) projects.get(row.get(0, Long.class)).get(ProjectField.EMPLOYEE_IDS.getName());
+                employeeIds.add(row.get(1, Long.class));
+            }
+        }
+    }
+}
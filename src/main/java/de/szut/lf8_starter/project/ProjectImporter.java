@@ -0,0 +1,481 @@
+package de.szut.lf8_starter.project;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.szut.lf8_starter.customer.CustomerClient;
+import de.szut.lf8_starter.employee.EmployeeClient;
+import de.szut.lf8_starter.project.dto.ProjectCreateDto;
+import de.szut.lf8_starter.project.dto.ProjectImportResultDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk import of projects from a streamed CSV or NDJSON body.
+ * <ol>
+ *     <li>The body is parsed line by line and valid rows are copied into the staging tables in chunks,
+ *     so memory stays bounded and no connection is held while the client is still sending.</li>
+ *     <li>Every distinct employee of the import is validated once against the employee service, and all
+ *     distinct customers in one batch through the {@link CustomerClient}.</li>
+ *     <li>In one transaction, rows referencing unknown employees or customers are marked as failed and the rest is merged
+ *     chunk by chunk. Only a chunk that fails (e.g. a scheduling conflict) is retried line by line.</li>
+ * </ol>
+ * Errors are reported per line and never abort the import as a whole.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProjectImporter {
+
+    public static final String CSV = "text/csv";
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final int STAGE_CHUNK_ROWS = 5000;
+    private static final int MERGE_CHUNK_LINES = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String COPY_ROWS = """
+            COPY project_import_rows (import_id, line, name, description, customer_id, responsible_employee_id,
+                                      start_date, end_date, status) FROM STDIN""";
+
+    private static final String COPY_MEMBERS = "COPY project_import_members (import_id, line, employee_id) FROM STDIN";
+
+    private static final String MARK_MISSING_RESPONSIBLE = """
+            UPDATE project_import_rows SET error = 'Employee with ID ' || responsible_employee_id || ' not found.'
+            WHERE import_id = ? AND responsible_employee_id = ANY (?)""";
+
+    private static final String MARK_MISSING_MEMBER = """
+            UPDATE project_import_rows r SET error = 'Employee with ID ' || m.employee_id || ' not found.'
+            FROM project_import_members m
+            WHERE r.import_id = ? AND m.import_id = r.import_id AND m.line = r.line
+              AND r.error IS NULL AND m.employee_id = ANY (?)""";
+
+    private static final String MARK_MISSING_CUSTOMER = """
+            UPDATE project_import_rows SET error = 'Customer with ID ' || customer_id || ' not found.'
+            WHERE import_id = ? AND error IS NULL AND customer_id = ANY (?)""";
+
+    private static final String ASSIGN_PROJECT_IDS = """
+            UPDATE project_import_rows SET project_id = nextval(pg_get_serial_sequence('projects', 'id'))
+            WHERE import_id = ? AND error IS NULL""";
+
+    private static final String MERGE_PROJECTS = """
+            INSERT INTO projects (id, name, description, customer_id, responsible_employee_id,
+                                  start_date, end_date, status, version)
+            SELECT project_id, name, description, customer_id, responsible_employee_id,
+                   start_date, end_date, status, 0
+            FROM project_import_rows
+            WHERE import_id = ? AND line BETWEEN ? AND ? AND error IS NULL
+            ORDER BY line""";
+
+    private static final String MERGE_MEMBERS = """
+            INSERT INTO project_employees (project_id, employee_id)
+            SELECT DISTINCT r.project_id, m.employee_id
+            FROM project_import_members m
+            JOIN project_import_rows r ON r.import_id = m.import_id AND r.line = m.line
+            WHERE m.import_id = ? AND m.line BETWEEN ? AND ? AND r.error IS NULL""";
+
+    private static final String PENDING_LINES = """
+            SELECT line FROM project_import_rows
+            WHERE import_id = ? AND line BETWEEN ? AND ? AND error IS NULL
+            ORDER BY line""";
+
+    private static final String MARK_FAILED = "UPDATE project_import_rows SET error = ? WHERE import_id = ? AND line = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmployeeClient employeeClient;
+    private final CustomerClient customerClient;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<Validator> validatorProvider;
+
+    /**
+     * Imports all projects of the body.
+     *
+     * @param body        the request body, one project per line (CSV with header line, or NDJSON).
+     * @param ndjson      true for NDJSON, false for CSV.
+     * @param bearerToken the authorization token for the employee validation.
+     * @return the number of imported and failed lines and the first errors.
+     */
+    public ProjectImportResultDto importProjects(InputStream body, boolean ndjson, String bearerToken) throws IOException {
+        UUID importId = UUID.randomUUID();
+        ImportState state = new ImportState();
+        try {
+            stage(importId, body, ndjson, state);
+            Set<Long> missingEmployees = employeeClient.findMissing(state.employeeIds, bearerToken);
+            Set<Long> missingCustomers = customerClient.findMissing(state.customerIds);
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                merge(connection, importId, missingEmployees, missingCustomers, state.lastLine);
+                return null;
+            });
+            return result(importId, state);
+        } finally {
+            jdbcTemplate.update("DELETE FROM project_import_members WHERE import_id = ?", importId);
+            jdbcTemplate.update("DELETE FROM project_import_rows WHERE import_id = ?", importId);
+        }
+    }
+
+    private void stage(UUID importId, InputStream body, boolean ndjson, ImportState state) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        Map<String, Integer> header = null;
+        StringBuilder rows = new StringBuilder();
+        StringBuilder members = new StringBuilder();
+        int stagedRows = 0;
+        String text;
+        int line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            if (!ndjson && header == null) {
+                header = parseHeader(text);
+                continue;
+            }
+            state.lastLine = line;
+            ProjectCreateDto project;
+            try {
+                project = ndjson ? parseJson(text) : parseCsv(text, header);
+                validate(project);
+            } catch (IllegalArgumentException e) {
+                state.reject(line, e.getMessage());
+                continue;
+            }
+
+            appendRow(rows, importId, line, project);
+            state.employeeIds.add(project.getResponsibleEmployeeId());
+            if (project.getCustomerId() != null) {
+                state.customerIds.add(project.getCustomerId());
+            }
+            if (project.getEmployeeIds() != null) {
+                for (Long employeeId : project.getEmployeeIds()) {
+                    appendColumns(members, importId, line, employeeId);
+                    state.employeeIds.add(employeeId);
+                }
+            }
+            if (++stagedRows % STAGE_CHUNK_ROWS == 0) {
+                copy(rows, members);
+            }
+        }
+        copy(rows, members);
+    }
+
+    private void copy(StringBuilder rows, StringBuilder members) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                pgConnection.getCopyAPI().copyIn(COPY_ROWS, new StringReader(rows.toString()));
+                if (!members.isEmpty()) {
+                    pgConnection.getCopyAPI().copyIn(COPY_MEMBERS, new StringReader(members.toString()));
+                }
+            } catch (IOException e) {
+                throw new SQLException("COPY into the import staging tables failed", e);
+            }
+            return null;
+        });
+        rows.setLength(0);
+        members.setLength(0);
+    }
+
+    private void merge(Connection connection, UUID importId, Set<Long> missingEmployees, Set<Long> missingCustomers,
+                       int lastLine) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            if (!missingEmployees.isEmpty()) {
+                Array missing = connection.createArrayOf("bigint", missingEmployees.toArray());
+                update(connection, MARK_MISSING_RESPONSIBLE, importId, missing);
+                update(connection, MARK_MISSING_MEMBER, importId, missing);
+            }
+            if (!missingCustomers.isEmpty()) {
+                update(connection, MARK_MISSING_CUSTOMER, importId, connection.createArrayOf("bigint", missingCustomers.toArray()));
+            }
+            update(connection, ASSIGN_PROJECT_IDS, importId);
+
+            for (int from = 1; from <= lastLine; from += MERGE_CHUNK_LINES) {
+                int to = from + MERGE_CHUNK_LINES - 1;
+                Savepoint chunk = connection.setSavepoint();
+                try {
+                    mergeLines(connection, importId, from, to);
+                    connection.releaseSavepoint(chunk);
+                } catch (SQLException e) {
+                    connection.rollback(chunk);
+                    mergeLineByLine(connection, importId, from, to);
+                }
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void mergeLineByLine(Connection connection, UUID importId, int from, int to) throws SQLException {
+        List<Integer> lines = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(PENDING_LINES)) {
+            statement.setObject(1, importId);
+            statement.setInt(2, from);
+            statement.setInt(3, to);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    lines.add(result.getInt(1));
+                }
+            }
+        }
+        for (int line : lines) {
+            Savepoint single = connection.setSavepoint();
+            try {
+                mergeLines(connection, importId, line, line);
+                connection.releaseSavepoint(single);
+            } catch (SQLException e) {
+                connection.rollback(single);
+                update(connection, MARK_FAILED, errorMessage(e), importId, line);
+            }
+        }
+    }
+
+    private void mergeLines(Connection connection, UUID importId, int from, int to) throws SQLException {
+        update(connection, MERGE_PROJECTS, importId, from, to);
+        update(connection, MERGE_MEMBERS, importId, from, to);
+    }
+
+    private ProjectImportResultDto result(UUID importId, ImportState state) {
+        Integer imported = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM project_import_rows WHERE import_id = ? AND error IS NULL", Integer.class, importId);
+        List<ProjectImportResultDto.LineError> errors = new ArrayList<>(state.errors);
+        errors.addAll(jdbcTemplate.query(
+                "SELECT line, error FROM project_import_rows WHERE import_id = ? AND error IS NOT NULL ORDER BY line LIMIT ?",
+                (row, rowNum) -> new ProjectImportResultDto.LineError(row.getInt(1), row.getString(2)),
+                importId, MAX_REPORTED_ERRORS));
+        Integer failedMerges = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM project_import_rows WHERE import_id = ? AND error IS NOT NULL", Integer.class, importId);
+        errors.sort(Comparator.comparingInt(ProjectImportResultDto.LineError::getLine));
+
+        int failed = state.rejected + (failedMerges != null ? failedMerges : 0);
+        log.info("Imported {} projects, {} lines failed", imported, failed);
+        return new ProjectImportResultDto(imported != null ? imported : 0, failed,
+                errors.subList(0, Math.min(errors.size(), MAX_REPORTED_ERRORS)));
+    }
+
+    private ProjectCreateDto parseJson(String text) {
+        try {
+            return objectMapper.readValue(text, ProjectCreateDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static Map<String, Integer> parseHeader(String text) {
+        List<String> columns = splitCsv(text);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim(), i);
+        }
+        return header;
+    }
+
+    /**
+     * Maps a CSV line to a project. The header names the columns like the JSON properties;
+     * employeeIds are separated by semicolons.
+     */
+    private static ProjectCreateDto parseCsv(String text, Map<String, Integer> header) {
+        List<String> values = splitCsv(text);
+        ProjectCreateDto project = new ProjectCreateDto();
+        project.setName(column(values, header, "name"));
+        project.setDescription(column(values, header, "description"));
+        project.setCustomerId(parseLong(column(values, header, "customerId"), "customerId"));
+        project.setResponsibleEmployeeId(parseLong(column(values, header, "responsibleEmployeeId"), "responsibleEmployeeId"));
+        project.setStartDate(parseDate(column(values, header, "startDate"), "startDate"));
+        project.setEndDate(parseDate(column(values, header, "endDate"), "endDate"));
+        String status = column(values, header, "status");
+        if (status != null) {
+            try {
+                project.setStatus(ProjectStatus.valueOf(status));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid value '" + status + "' for status");
+            }
+        }
+        String employeeIds = column(values, header, "employeeIds");
+        if (employeeIds != null) {
+            Set<Long> ids = new LinkedHashSet<>();
+            for (String id : employeeIds.split(";")) {
+                if (!id.isBlank()) {
+                    ids.add(parseLong(id.trim(), "employeeIds"));
+                }
+            }
+            project.setEmployeeIds(ids);
+        }
+        return project;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        if (index == null || index >= values.size() || values.get(index).isEmpty()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    private static Long parseLong(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for " + column);
+        }
+    }
+
+    private static LocalDate parseDate(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for " + column);
+        }
+    }
+
+    /**
+     * Splits one CSV line (RFC 4180 quoting, without line breaks inside quoted values).
+     */
+    private static List<String> splitCsv(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private void validate(ProjectCreateDto project) {
+        Set<ConstraintViolation<ProjectCreateDto>> violations = validatorProvider.getObject().validate(project);
+        violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .findFirst()
+                .ifPresent(message -> {
+                    throw new IllegalArgumentException(message);
+                });
+    }
+
+    private static void appendRow(StringBuilder rows, UUID importId, int line, ProjectCreateDto project) {
+        appendColumns(rows, importId, line, project.getName(), project.getDescription(), project.getCustomerId(),
+                project.getResponsibleEmployeeId(), project.getStartDate(), project.getEndDate(),
+                project.getStatus() != null ? project.getStatus() : ProjectStatus.PLANNED);
+    }
+
+    /**
+     * Appends one line in the COPY text format: tab-separated, \N for null, with backslash escapes.
+     */
+    private static void appendColumns(StringBuilder target, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                target.append('\t');
+            }
+            if (values[i] == null) {
+                target.append("\\N");
+                continue;
+            }
+            String value = values[i].toString();
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                switch (c) {
+                    case '\\' -> target.append("\\\\");
+                    case '\t' -> target.append("\\t");
+                    case '\n' -> target.append("\\n");
+                    case '\r' -> target.append("\\r");
+                    default -> target.append(c);
+                }
+            }
+        }
+        target.append('\n');
+    }
+
+    private static void update(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    private static String errorMessage(SQLException e) {
+        if ("23P01".equals(e.getSQLState())) {
+            return "An assigned employee is already scheduled in another project during this timeframe.";
+        }
+        return e.getMessage();
+    }
+
+    /**
+     * What the streaming phase learned about the import.
+     */
+    private static class ImportState {
+        private final Set<Long> employeeIds = new HashSet<>();
+        private final Set<Long> customerIds = new HashSet<>();
+        private final List<ProjectImportResultDto.LineError> errors = new ArrayList<>();
+        private int rejected;
+        private int lastLine;
+
+        private void reject(int line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProjectImportResultDto.LineError(line, message));
+            }
+        }
+    }
+}
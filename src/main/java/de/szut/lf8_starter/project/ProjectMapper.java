@@ -5,6 +5,7 @@ import de.szut.lf8_starter.project.dto.ProjectGetDto;
 import org.springframework.stereotype.Component;
 
 import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Maps between Project DTOs (Data Transfer Objects) and ProjectEntity.
@@ -25,6 +26,7 @@ public class ProjectMapper {
 
     /**
      * Updates an existing ProjectEntity with data from a ProjectCreateDto.
+     * The team set is changed in place, so Hibernate only writes the added and removed members.
      *
      * @param entity the existing entity from the database
      * @param dto    the DTO with the update data
@@ -38,7 +40,13 @@ public class ProjectMapper {
         entity.setStartDate(dto.getStartDate());
         entity.setEndDate(dto.getEndDate());
         entity.setStatus(dto.getStatus() != null ? dto.getStatus() : ProjectStatus.PLANNED);
-        entity.setEmployeeIds(dto.getEmployeeIds() != null ? new HashSet<>(dto.getEmployeeIds()) : new HashSet<>());
+        Set<Long> employeeIds = dto.getEmployeeIds() != null ? dto.getEmployeeIds() : Set.of();
+        if (entity.getEmployeeIds() == null) {
+            entity.setEmployeeIds(new HashSet<>(employeeIds));
+        } else {
+            entity.getEmployeeIds().retainAll(employeeIds);
+            entity.getEmployeeIds().addAll(employeeIds);
+        }
         return entity;
     }
 
@@ -58,7 +66,49 @@ public class ProjectMapper {
         dto.setStartDate(entity.getStartDate());
         dto.setEndDate(entity.getEndDate());
         dto.setStatus(entity.getStatus());
+        dto.setValidationError(entity.getValidationError());
         dto.setEmployeeIds(new HashSet<>(entity.getEmployeeIds()));
+        dto.setVersion(entity.getVersion());
         return dto;
     }
-}
\ No newline at end of file
+
+    /**
+     * Maps an ArchivedProjectEntity to a ProjectGetDto.
+     *
+     * @param entity the archived entity from the database
+     * @return a DTO suitable for sending to the client
+     */
+    public ProjectGetDto mapArchivedEntityToGetDto(ArchivedProjectEntity entity) {
+        ProjectGetDto dto = new ProjectGetDto();
+        dto.setId(entity.getId());
+        dto.setName(entity.getName());
+        dto.setDescription(entity.getDescription());
+        dto.setCustomerId(entity.getCustomerId());
+        dto.setResponsibleEmployeeId(entity.getResponsibleEmployeeId());
+        dto.setStartDate(entity.getStartDate());
+        dto.setEndDate(entity.getEndDate());
+        dto.setStatus(entity.getStatus());
+        dto.setEmployeeIds(new HashSet<>(entity.getEmployeeIds()));
+        dto.setVersion(entity.getVersion());
+        return dto;
+    }
+
+    /**
+     * Maps a ProjectEntity to a ProjectCreateDto, used as the base document a merge patch is applied to.
+     *
+     * @param entity the entity from the database
+     * @return a DTO holding the current state of the project
+     */
+    public ProjectCreateDto mapEntityToCreateDto(ProjectEntity entity) {
+        ProjectCreateDto dto = new ProjectCreateDto();
+        dto.setName(entity.getName());
+        dto.setDescription(entity.getDescription());
+        dto.setCustomerId(entity.getCustomerId());
+        dto.setResponsibleEmployeeId(entity.getResponsibleEmployeeId());
+        dto.setStartDate(entity.getStartDate());
+        dto.setEndDate(entity.getEndDate());
+        dto.setStatus(entity.getStatus());
+        dto.setEmployeeIds(entity.getEmployeeIds() != null ? new HashSet<>(entity.getEmployeeIds()) : new HashSet<>());
+        return dto;
+    }
+}
@@ -1,9 +1,14 @@
 package de.szut.lf8_starter.project;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Spring Data JPA repository for the {@link ProjectEntity}.
@@ -22,4 +27,77 @@ public interface ProjectRepository extends JpaRepository<ProjectEntity, Long> {
      * Query is derived from the method name by Spring Data JPA.
      */
     List<ProjectEntity> findByEmployeeIdsContaining(Long employeeId);
-}
\ No newline at end of file
+
+    /**
+     * Reads only the status of a project.
+     */
+    @Query("SELECT p.status FROM ProjectEntity p WHERE p.id = :projectId")
+    Optional<ProjectStatus> findStatusById(@Param("projectId") Long projectId);
+
+    /**
+     * Finds all projects with the given status, e.g. the ones still waiting for their deferred validation.
+     */
+    List<ProjectEntity> findByStatus(ProjectStatus status);
+
+    /**
+     * Increments the version of a project, which also takes the row lock for the current transaction.
+     * Returns 0 if the project does not exist.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE projects SET version = version + 1 WHERE id = :projectId", nativeQuery = true)
+    int incrementVersion(@Param("projectId") Long projectId);
+
+    /**
+     * Increments the version of a project only if it still has the expected version.
+     * Returns 0 if the project does not exist or has a different version.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE projects SET version = version + 1 WHERE id = :projectId AND version = :expectedVersion", nativeQuery = true)
+    int incrementVersionIfMatches(@Param("projectId") Long projectId, @Param("expectedVersion") Long expectedVersion);
+
+    /**
+     * Adds a single team member with one INSERT, without loading or rewriting the rest of the team.
+     * Returns 0 if the employee is already a member.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO project_employees (project_id, employee_id) VALUES (:projectId, :employeeId) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertEmployee(@Param("projectId") Long projectId, @Param("employeeId") Long employeeId);
+
+    /**
+     * Removes a single team member with one DELETE.
+     * Returns 0 if the employee was not a member.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM project_employees WHERE project_id = :projectId AND employee_id = :employeeId", nativeQuery = true)
+    int deleteEmployee(@Param("projectId") Long projectId, @Param("employeeId") Long employeeId);
+
+    /**
+     * Sets the requested status of a project that passed the deferred validation.
+     * Returns 0 if the project no longer exists or is no longer pending.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE projects SET status = :status, requested_status = NULL, callback_url = NULL, version = version + 1 WHERE id = :projectId AND status = 'PENDING_VALIDATION'", nativeQuery = true)
+    int promotePendingProject(@Param("projectId") Long projectId, @Param("status") String status);
+
+    /**
+     * Marks a pending project as rejected.
+     * Returns 0 if the project no longer exists or is no longer pending.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE projects SET status = 'REJECTED', validation_error = :error, requested_status = NULL, callback_url = NULL, version = version + 1 WHERE id = :projectId AND status = 'PENDING_VALIDATION'", nativeQuery = true)
+    int rejectPendingProject(@Param("projectId") Long projectId, @Param("error") String error);
+
+    /**
+     * Releases the schedule a project's team had reserved in project_assignments.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM project_assignments WHERE project_id = :projectId", nativeQuery = true)
+    int deleteAssignments(@Param("projectId") Long projectId);
+}
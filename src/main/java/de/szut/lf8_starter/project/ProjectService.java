@@ -1,35 +1,82 @@
 package de.szut.lf8_starter.project;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.szut.lf8_starter.config.ReadYourWritesTracker;
+import de.szut.lf8_starter.customer.CustomerClient;
+import de.szut.lf8_starter.employee.EmployeeClient;
+import de.szut.lf8_starter.employee.dto.EmployeeDto;
 import de.szut.lf8_starter.exceptionHandling.EmployeeNotAvailableException;
+import de.szut.lf8_starter.exceptionHandling.InvalidPatchException;
+import de.szut.lf8_starter.exceptionHandling.PreconditionFailedException;
+import de.szut.lf8_starter.exceptionHandling.ProjectNotModifiableException;
 import de.szut.lf8_starter.exceptionHandling.ResourceNotFoundException;
 import de.szut.lf8_starter.project.dto.GetEmployeesOfProjectDto;
 import de.szut.lf8_starter.project.dto.ProjectCreateDto;
 import de.szut.lf8_starter.project.dto.ProjectGetDto;
+import de.szut.lf8_starter.project.dto.ProjectImportResultDto;
+import de.szut.lf8_starter.resilience.SingleFlight;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
-
-import java.time.LocalDate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Service class for handling all project-related business logic.
  * This includes CRUD operations, validation, and interaction with external services.
+ * Read-only operations are marked as such, so they can be served by a read replica.
+ * Write operations call external services first and then run all database work in one short transaction.
  */
 @Service
 @RequiredArgsConstructor
 public class ProjectService {
 
+    /**
+     * SQLSTATE raised by Postgres when the project_assignments exclusion constraint is violated.
+     */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final ProjectRepository projectRepository;
+    private final ArchivedProjectRepository archivedProjectRepository;
     private final ProjectMapper projectMapper;
-    private final RestTemplate restTemplate;
+    private final EmployeeClient employeeClient;
+    private final CustomerClient customerClient;
+    private final SingleFlight singleFlight;
+    private final AssignmentLock assignmentLock;
+    private final VersionConflictRetry versionConflictRetry;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<Validator> validatorProvider;
+    private final ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
+    private final ProjectFieldReader projectFieldReader;
+    private final ProjectImporter projectImporter;
+    private final DeferredProjectValidator deferredProjectValidator;
 
     /**
      * Creates a new project after validating all provided data.
@@ -39,65 +86,172 @@ public class ProjectService {
      * @return the created project as a DTO.
      */
     public ProjectGetDto create(ProjectCreateDto createDto, String bearerToken) {
-        validateEmployeeExists(createDto.getResponsibleEmployeeId(), bearerToken);
+        Set<Long> employeeIds = new LinkedHashSet<>();
+        employeeIds.add(createDto.getResponsibleEmployeeId());
         if (createDto.getEmployeeIds() != null) {
-            createDto.getEmployeeIds().forEach(employeeId -> validateEmployeeExists(employeeId, bearerToken));
+            employeeIds.addAll(createDto.getEmployeeIds());
         }
+        employeeClient.requireAllExist(employeeIds, bearerToken);
         validateCustomerExists(createDto.getCustomerId());
 
         ProjectEntity newEntity = projectMapper.mapCreateDtoToEntity(createDto);
-        ProjectEntity savedEntity = projectRepository.save(newEntity);
+        ProjectEntity savedEntity = saveCheckingAssignments(newEntity,
+                "An assigned employee is already scheduled in another project during this timeframe.");
         return projectMapper.mapEntityToGetDto(savedEntity);
     }
 
+    /**
+     * Stores a new project right away in status PENDING_VALIDATION and validates its employees in the background.
+     * Scheduling conflicts are still detected immediately by the database.
+     *
+     * @param createDto   DTO containing the project data.
+     * @param bearerToken the authorization token for the background validation.
+     * @param callbackUrl where the validated or rejected project is POSTed, or null to poll instead.
+     * @return the pending project as a DTO.
+     */
+    public ProjectGetDto createDeferred(ProjectCreateDto createDto, String bearerToken, String callbackUrl) {
+        ProjectStatus requestedStatus = createDto.getStatus() != null ? createDto.getStatus() : ProjectStatus.PLANNED;
+        validateCustomerExists(createDto.getCustomerId());
+        ProjectEntity newEntity = projectMapper.mapCreateDtoToEntity(createDto);
+        newEntity.setStatus(ProjectStatus.PENDING_VALIDATION);
+        newEntity.setRequestedStatus(requestedStatus);
+        newEntity.setCallbackUrl(callbackUrl);
+        ProjectEntity savedEntity = saveCheckingAssignments(newEntity,
+                "An assigned employee is already scheduled in another project during this timeframe.");
+        deferredProjectValidator.enqueue(savedEntity.getId(), requestedStatus, bearerToken, callbackUrl);
+        return projectMapper.mapEntityToGetDto(savedEntity);
+    }
+
+    /**
+     * Returns true if projects can be created with deferred validation.
+     */
+    public boolean supportsDeferredValidation() {
+        return deferredProjectValidator.isEnabled();
+    }
+
+    /**
+     * Imports projects in bulk from a streamed CSV or NDJSON body, see {@link ProjectImporter}.
+     *
+     * @param body        the request body with one project per line.
+     * @param ndjson      true for NDJSON, false for CSV with a header line.
+     * @param bearerToken the authorization token for external validation.
+     * @return the number of imported and failed lines and the errors per line.
+     */
+    public ProjectImportResultDto importProjects(InputStream body, boolean ndjson, String bearerToken) throws IOException {
+        return projectImporter.importProjects(body, ndjson, bearerToken);
+    }
+
     /**
      * Retrieves a list of all projects.
      *
+     * @param includeArchived whether archived (old finished or cancelled) projects are included.
      * @return a list of all projects.
      */
-    public List<ProjectGetDto> readAll() {
-        return projectRepository.findAll()
+    @Transactional(readOnly = true)
+    public List<ProjectGetDto> readAll(boolean includeArchived) {
+        Stream<ProjectGetDto> projects = projectRepository.findAll()
                 .stream()
-                .map(projectMapper::mapEntityToGetDto)
-                .collect(Collectors.toList());
+                .map(projectMapper::mapEntityToGetDto);
+        if (includeArchived) {
+            projects = Stream.concat(projects, archivedProjectRepository.findAll()
+                    .stream()
+                    .map(projectMapper::mapArchivedEntityToGetDto));
+        }
+        return projects.collect(Collectors.toList());
     }
 
     /**
-     * Retrieves a single project by its unique ID.
+     * Retrieves a list of all projects with only the selected fields.
      *
-     * @param id the ID of the project.
-     * @return the project DTO.
+     * @param fields          the fields to read; project_employees is only queried for employeeIds.
+     * @param includeArchived whether archived (old finished or cancelled) projects are included.
+     * @return a list of projects, each as a map from field name to value.
      */
-    public ProjectGetDto readById(Long id) {
-        ProjectEntity entity = projectRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Project with id " + id + " not found"));
-        return projectMapper.mapEntityToGetDto(entity);
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> readAll(Set<ProjectField> fields, boolean includeArchived) {
+        List<Map<String, Object>> projects = new ArrayList<>(projectFieldReader.findAll(ProjectEntity.class, fields));
+        if (includeArchived) {
+            projects.addAll(projectFieldReader.findAll(ArchivedProjectEntity.class, fields));
+        }
+        return projects;
     }
 
     /**
-     * Updates an existing project after validating all provided data.
+     * Retrieves a single project by its unique ID.
      *
-     * @param id          the ID of the project to update.
-     * @param updateDto   DTO with the new data.
-     * @param bearerToken the authorization token for external validation.
-     * @return the updated project DTO.
+     * @param id              the ID of the project.
+     * @param includeArchived whether the archive is searched if the project is not in the hot set.
+     * @return the project DTO.
      */
-    public ProjectGetDto update(Long id, ProjectCreateDto updateDto, String bearerToken) {
-        if (updateDto.getResponsibleEmployeeId() != null) {
-            validateEmployeeExists(updateDto.getResponsibleEmployeeId(), bearerToken);
+    public ProjectGetDto readById(Long id, boolean includeArchived) {
+        // Concurrent reads of the same project share one query; joining happens before a transaction is opened.
+        // Clients inside their read-your-writes window and callers inside a transaction read on their own:
+        // a flight started before their write committed would hand them the state from before it.
+        ReadYourWritesTracker tracker = readYourWritesTracker.getIfAvailable();
+        if (tracker != null && tracker.hasRecentWrite() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return readOnly(() -> loadById(id, includeArchived));
         }
-        if (updateDto.getEmployeeIds() != null) {
-            updateDto.getEmployeeIds().forEach(employeeId -> validateEmployeeExists(employeeId, bearerToken));
+        return singleFlight.execute("project-read", new ReadKey(id, includeArchived),
+                () -> readOnly(() -> loadById(id, includeArchived)));
+    }
+
+    private ProjectGetDto loadById(Long id, boolean includeArchived) {
+        Optional<ProjectGetDto> project = projectRepository.findById(id).map(projectMapper::mapEntityToGetDto);
+        if (project.isEmpty() && includeArchived) {
+            project = archivedProjectRepository.findById(id).map(projectMapper::mapArchivedEntityToGetDto);
         }
-        validateCustomerExists(updateDto.getCustomerId());
+        return project.orElseThrow(() -> new ResourceNotFoundException("Project with id " + id + " not found"));
+    }
 
-        ProjectEntity existingEntity = projectRepository.findById(id)
+    /**
+     * Retrieves a single project by its unique ID with only the selected fields.
+     *
+     * @param id              the ID of the project.
+     * @param fields          the fields to read; project_employees is only queried for employeeIds.
+     * @param includeArchived whether the archive is searched if the project is not in the hot set.
+     * @return the project as a map from field name to value.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> readById(Long id, Set<ProjectField> fields, boolean includeArchived) {
+        List<Map<String, Object>> project = projectFieldReader.findById(ProjectEntity.class, id, fields);
+        if (project.isEmpty() && includeArchived) {
+            project = projectFieldReader.findById(ArchivedProjectEntity.class, id, fields);
+        }
+        return project.stream()
+                .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Project with id " + id + " not found"));
+    }
 
-        ProjectEntity updatedEntity = projectMapper.mapUpdateDtoToEntity(existingEntity, updateDto);
-        ProjectEntity savedEntity = projectRepository.save(updatedEntity);
+    /**
+     * Updates an existing project. Only data that differs from the stored project is validated remotely:
+     * a changed responsible employee, newly added team members and a changed customer.
+     * Scheduling conflicts for the whole team are re-checked by the database only when the dates move.
+     *
+     * @param id              the ID of the project to update.
+     * @param updateDto       DTO with the new data.
+     * @param bearerToken     the authorization token for external validation.
+     * @param expectedVersion the version from the If-Match header, or null for an unconditional update.
+     * @return the updated project DTO.
+     */
+    public ProjectGetDto update(Long id, ProjectCreateDto updateDto, String bearerToken, Long expectedVersion) {
+        return writeProject(id, expectedVersion, bearerToken, storedProject -> updateDto);
+    }
 
-        return projectMapper.mapEntityToGetDto(savedEntity);
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) to an existing project. Only the supplied fields change,
+     * only the changed columns are written, and the team is left untouched unless employeeIds is part of the patch.
+     *
+     * @param id              the ID of the project to patch.
+     * @param patch           the merge patch document.
+     * @param bearerToken     the authorization token for external validation.
+     * @param expectedVersion the version from the If-Match header, or null for an unconditional patch.
+     * @return the patched project DTO.
+     */
+    public ProjectGetDto patch(Long id, JsonNode patch, String bearerToken, Long expectedVersion) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidPatchException("A merge patch for a project must be a JSON object.");
+        }
+        return writeProject(id, expectedVersion, bearerToken, storedProject -> mergePatch(storedProject, patch));
     }
 
     /**
@@ -106,146 +260,346 @@ public class ProjectService {
      * @param id the ID of the project to delete.
      */
     public void delete(Long id) {
-        if (!projectRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Project with id " + id + " not found");
-        }
-        projectRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!projectRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Project with id " + id + " not found");
+            }
+            projectRepository.deleteById(id);
+        });
     }
 
     /**
      * Adds a single employee to a project's team after performing all necessary validations.
+     * The team is changed with a single INSERT, so the cost does not depend on the team size.
+     * Scheduling conflicts are detected atomically by the project_assignments exclusion constraint,
+     * and concurrent membership changes are serialised per project and employee by the {@link AssignmentLock}.
      *
-     * @param projectId   the ID of the project.
-     * @param employeeId  the ID of the employee to add.
-     * @param bearerToken the authorization token for external validation.
+     * @param projectId       the ID of the project.
+     * @param employeeId      the ID of the employee to add.
+     * @param bearerToken     the authorization token for external validation.
+     * @param expectedVersion the version from the If-Match header, or null to retry on concurrent changes.
      * @return the updated project DTO.
      */
-    public ProjectGetDto addEmployeeToProject(Long projectId, Long employeeId, String bearerToken) {
-        ProjectEntity project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new ResourceNotFoundException("Project with ID " + projectId + " not found."));
+    public ProjectGetDto addEmployeeToProject(Long projectId, Long employeeId, String bearerToken, Long expectedVersion) {
+        // A read-write transaction keeps this check on the primary, a replica may not have the project yet.
+        if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> projectRepository.existsById(projectId)))) {
+            throw new ResourceNotFoundException("Project with ID " + projectId + " not found.");
+        }
 
         validateEmployeeExists(employeeId, bearerToken);
-        checkEmployeeAvailability(employeeId, project.getStartDate(), project.getEndDate(), projectId);
-
-        if (project.getEmployeeIds().contains(employeeId)) {
-            return projectMapper.mapEntityToGetDto(project);
-        }
 
-        project.getEmployeeIds().add(employeeId);
-        ProjectEntity updatedProject = projectRepository.save(project);
-        return projectMapper.mapEntityToGetDto(updatedProject);
+        return withVersionConflictHandling(projectId, expectedVersion, () -> assignmentLock.withLock(projectId, employeeId, () ->
+                transactionTemplate.execute(status -> {
+                    incrementVersion(projectId, expectedVersion);
+                    requireModifiable(projectId);
+                    checkingAssignments("Employee with ID " + employeeId + " is already scheduled in another project during this timeframe.",
+                            () -> projectRepository.insertEmployee(projectId, employeeId));
+                    return loadById(projectId, false);
+                })));
     }
 
     /**
-     * Removes a single employee from a project's team.
+     * Removes a single employee from a project's team with a single DELETE.
      *
-     * @param projectId  the ID of the project.
-     * @param employeeId the ID of the employee to remove.
+     * @param projectId       the ID of the project.
+     * @param employeeId      the ID of the employee to remove.
+     * @param expectedVersion the version from the If-Match header, or null to retry on concurrent changes.
      */
-    public void removeEmployeeFromProject(Long projectId, Long employeeId) {
-        ProjectEntity project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new ResourceNotFoundException("Project with ID " + projectId + " not found."));
-
-        boolean removed = project.getEmployeeIds().remove(employeeId);
-
-        if (!removed) {
-            throw new ResourceNotFoundException("Employee with ID " + employeeId + " is not assigned to project with ID " + projectId + ".");
-        }
-        projectRepository.save(project);
+    public void removeEmployeeFromProject(Long projectId, Long employeeId, Long expectedVersion) {
+        withVersionConflictHandling(projectId, expectedVersion, () -> assignmentLock.withLock(projectId, employeeId, () ->
+                transactionTemplate.execute(status -> {
+                    incrementVersion(projectId, expectedVersion);
+                    requireModifiable(projectId);
+                    if (projectRepository.deleteEmployee(projectId, employeeId) == 0) {
+                        throw new ResourceNotFoundException("Employee with ID " + employeeId + " is not assigned to project with ID " + projectId + ".");
+                    }
+                    return null;
+                })));
     }
 
     /**
      * Retrieves all employees assigned to a specific project.
+     * With expandEmployees their details are fetched from the employee service outside the read transaction;
+     * the response then lists the employees it could not resolve in time instead of failing.
      *
-     * @param projectId the ID of the project.
+     * @param projectId       the ID of the project.
+     * @param expandEmployees whether to include the details of the employees.
+     * @param bearerToken     the authorization token for the employee service.
      * @return a DTO containing the project details and its employee IDs.
      */
-    public GetEmployeesOfProjectDto getEmployeesOfProject(Long projectId) {
-        ProjectEntity project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new ResourceNotFoundException("Project with ID " + projectId + " not found."));
-
-        GetEmployeesOfProjectDto dto = new GetEmployeesOfProjectDto();
-        dto.setProjectId(project.getId());
-        dto.setProjectName(project.getName());
-        dto.setEmployeeIds(project.getEmployeeIds());
-
+    public GetEmployeesOfProjectDto getEmployeesOfProject(Long projectId, boolean expandEmployees, String bearerToken) {
+        GetEmployeesOfProjectDto dto = readOnly(() -> {
+            ProjectEntity project = projectRepository.findById(projectId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Project with ID " + projectId + " not found."));
+
+            GetEmployeesOfProjectDto employeesDto = new GetEmployeesOfProjectDto();
+            employeesDto.setProjectId(project.getId());
+            employeesDto.setProjectName(project.getName());
+            employeesDto.setEmployeeIds(new TreeSet<>(project.getEmployeeIds()));
+            return employeesDto;
+        });
+
+        if (expandEmployees) {
+            Map<Long, EmployeeDto> details = employeeClient.findDetails(dto.getEmployeeIds(), bearerToken);
+            Set<Long> unresolved = new TreeSet<>(dto.getEmployeeIds());
+            unresolved.removeAll(details.keySet());
+            dto.setEmployees(List.copyOf(details.values()));
+            dto.setUnresolvedEmployeeIds(unresolved);
+        }
         return dto;
     }
 
     /**
      * Retrieves all projects a specific employee is involved in (as responsible or team member).
      *
-     * @param employeeId the ID of the employee.
+     * @param employeeId      the ID of the employee.
+     * @param includeArchived whether archived projects of the employee are included.
      * @return a list of project DTOs.
      */
-    public List<ProjectGetDto> getProjectsOfEmployee(Long employeeId) {
+    @Transactional(readOnly = true)
+    public List<ProjectGetDto> getProjectsOfEmployee(Long employeeId, boolean includeArchived) {
         List<ProjectEntity> projectsAsResponsible = projectRepository.findByResponsibleEmployeeId(employeeId);
         List<ProjectEntity> projectsAsTeamMember = projectRepository.findByEmployeeIdsContaining(employeeId);
 
-        return Stream.concat(projectsAsResponsible.stream(), projectsAsTeamMember.stream())
+        Stream<ProjectGetDto> projects = Stream.concat(projectsAsResponsible.stream(), projectsAsTeamMember.stream())
                 .distinct()
-                .map(projectMapper::mapEntityToGetDto)
-                .collect(Collectors.toList());
+                .map(projectMapper::mapEntityToGetDto);
+        if (includeArchived) {
+            List<ArchivedProjectEntity> archivedAsResponsible = archivedProjectRepository.findByResponsibleEmployeeId(employeeId);
+            List<ArchivedProjectEntity> archivedAsTeamMember = archivedProjectRepository.findByEmployeeIdsContaining(employeeId);
+            projects = Stream.concat(projects, Stream.concat(archivedAsResponsible.stream(), archivedAsTeamMember.stream())
+                    .distinct()
+                    .map(projectMapper::mapArchivedEntityToGetDto));
+        }
+        return projects.collect(Collectors.toList());
     }
 
     /**
-     * Checks if an employee is already scheduled for another project during the given timeframe.
-     * Throws an EmployeeNotAvailableException if a scheduling conflict is found.
+     * Retrieves all projects a specific employee is involved in with only the selected fields.
+     *
+     * @param employeeId      the ID of the employee.
+     * @param fields          the fields to read; project_employees is only queried for employeeIds.
+     * @param includeArchived whether archived projects of the employee are included.
+     * @return a list of projects, each as a map from field name to value.
      */
-    private void checkEmployeeAvailability(Long employeeId, LocalDate newProjectStart, LocalDate newProjectEnd, Long currentProjectId) {
-        if (newProjectStart == null || newProjectEnd == null) {
-            return;
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getProjectsOfEmployee(Long employeeId, Set<ProjectField> fields, boolean includeArchived) {
+        List<Map<String, Object>> projects = new ArrayList<>(projectFieldReader.findByEmployee(ProjectEntity.class, employeeId, fields));
+        if (includeArchived) {
+            projects.addAll(projectFieldReader.findByEmployee(ArchivedProjectEntity.class, employeeId, fields));
         }
+        return projects;
+    }
 
-        List<ProjectEntity> projectsAsResponsible = projectRepository.findByResponsibleEmployeeId(employeeId);
-        List<ProjectEntity> projectsAsTeamMember = projectRepository.findByEmployeeIdsContaining(employeeId);
+    /**
+     * Runs a read in a read-only transaction, so it can be served by the read replica.
+     */
+    private <T> T readOnly(Supplier<T> read) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+        return readOnlyTransaction.execute(status -> read.get());
+    }
 
-        Stream.concat(projectsAsResponsible.stream(), projectsAsTeamMember.stream())
-                .distinct()
-                .forEach(existingProject -> {
-                    if (existingProject.getId().equals(currentProjectId)) {
-                        return;
-                    }
-                    if (existingProject.getStartDate() == null || existingProject.getEndDate() == null) {
-                        return;
-                    }
+    /**
+     * Runs a write that is guarded by the project version. Unconditional writes are retried on concurrent
+     * version conflicts, while conditional ones (If-Match) fail with a PreconditionFailedException instead.
+     */
+    private <T> T withVersionConflictHandling(Long projectId, Long expectedVersion, Supplier<T> write) {
+        if (expectedVersion == null) {
+            return versionConflictRetry.execute(write);
+        }
+        try {
+            return write.get();
+        } catch (OptimisticLockingFailureException e) {
+            throw new PreconditionFailedException("Project with ID " + projectId + " was modified by another request.");
+        }
+    }
 
-                    boolean overlaps = !newProjectStart.isAfter(existingProject.getEndDate()) &&
-                            !newProjectEnd.isBefore(existingProject.getStartDate());
+    /**
+     * Updates a project in three phases, so that no database connection is held during remote calls:
+     * a short read of the stored project, remote validation of what changed, and one short write transaction.
+     * The write transaction fails with an optimistic locking exception if the project changed in between.
+     */
+    private ProjectGetDto writeProject(Long id, Long expectedVersion, String bearerToken,
+                                       Function<ProjectEntity, ProjectCreateDto> updateFor) {
+        return withVersionConflictHandling(id, expectedVersion, () -> {
+            ProjectEntity storedProject = transactionTemplate.execute(status -> projectRepository.findById(id))
+                    .orElseThrow(() -> new ResourceNotFoundException("Project with id " + id + " not found"));
+            checkVersion(storedProject, expectedVersion);
+            requireModifiable(storedProject.getId(), storedProject.getStatus());
+            Long readVersion = storedProject.getVersion();
+
+            ProjectCreateDto updateDto = updateFor.apply(storedProject);
+            validateChanges(storedProject, updateDto, bearerToken);
+
+            return transactionTemplate.execute(status -> {
+                ProjectEntity currentProject = projectRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Project with id " + id + " not found"));
+                if (!Objects.equals(currentProject.getVersion(), readVersion)) {
+                    throw new ObjectOptimisticLockingFailureException(ProjectEntity.class, id);
+                }
+                flushRemovedMembers(currentProject, updateDto);
+                ProjectEntity updatedEntity = projectMapper.mapUpdateDtoToEntity(currentProject, updateDto);
+                ProjectEntity savedEntity = saveCheckingAssignments(updatedEntity,
+                        "An assigned employee is already scheduled in another project during this timeframe.");
+                return projectMapper.mapEntityToGetDto(savedEntity);
+            });
+        });
+    }
 
-                    if (overlaps) {
-                        throw new EmployeeNotAvailableException("Employee with ID " + employeeId + " is already scheduled in project '" + existingProject.getName() + "' during this timeframe.");
-                    }
-                });
+    /**
+     * Removes the members an update drops and flushes, before a schedule change is applied.
+     * Hibernate writes the projects UPDATE before the team rows, so the update trigger would otherwise re-check
+     * the assignments of members that are about to leave and report a conflict for them.
+     * This costs one extra version increment, and only when the schedule changes and members are removed.
+     */
+    private void flushRemovedMembers(ProjectEntity project, ProjectCreateDto updateDto) {
+        boolean scheduleChanges = !Objects.equals(project.getStartDate(), updateDto.getStartDate())
+                || !Objects.equals(project.getEndDate(), updateDto.getEndDate())
+                || !Objects.equals(project.getResponsibleEmployeeId(), updateDto.getResponsibleEmployeeId());
+        Set<Long> employeeIds = updateDto.getEmployeeIds() != null ? updateDto.getEmployeeIds() : Set.of();
+        if (scheduleChanges && project.getEmployeeIds() != null && project.getEmployeeIds().retainAll(employeeIds)) {
+            projectRepository.flush();
+        }
     }
 
     /**
-     * Validates if an employee exists via the external employee service.
-     * Throws a ResourceNotFoundException if the employee does not exist.
+     * Merges a patch document onto the current state of a project and validates the result like a PUT body.
      */
-    private void validateEmployeeExists(Long employeeId, String bearerToken) {
-        final String url = "https://employee-api.szut.dev/employees/{id}";
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", bearerToken);
-        HttpEntity<String> entity = new HttpEntity<>(headers);
+    private ProjectCreateDto mergePatch(ProjectEntity storedProject, JsonNode patch) {
+        ProjectCreateDto mergedDto = projectMapper.mapEntityToCreateDto(storedProject);
+        try {
+            objectMapper.readerForUpdating(mergedDto).readValue(patch);
+        } catch (IOException e) {
+            throw new InvalidPatchException("The merge patch could not be applied: " + e.getMessage());
+        }
+        Set<ConstraintViolation<ProjectCreateDto>> violations = validatorProvider.getObject().validate(mergedDto);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return mergedDto;
+    }
+
+    /**
+     * Validates remotely only what differs between the stored project and the update.
+     */
+    private void validateChanges(ProjectEntity storedProject, ProjectCreateDto updateDto, String bearerToken) {
+        Set<Long> employeeIds = new LinkedHashSet<>();
+        if (updateDto.getResponsibleEmployeeId() != null
+                && !updateDto.getResponsibleEmployeeId().equals(storedProject.getResponsibleEmployeeId())) {
+            employeeIds.add(updateDto.getResponsibleEmployeeId());
+        }
+        employeeIds.addAll(addedEmployeeIds(storedProject, updateDto));
+        employeeClient.requireAllExist(employeeIds, bearerToken);
+        if (!Objects.equals(updateDto.getCustomerId(), storedProject.getCustomerId())) {
+            validateCustomerExists(updateDto.getCustomerId());
+        }
+    }
+
+    /**
+     * Returns the team members of the update that are not yet stored for the project.
+     */
+    private Set<Long> addedEmployeeIds(ProjectEntity project, ProjectCreateDto updateDto) {
+        if (updateDto.getEmployeeIds() == null) {
+            return Set.of();
+        }
+        Set<Long> added = new HashSet<>(updateDto.getEmployeeIds());
+        if (project.getEmployeeIds() != null) {
+            added.removeAll(project.getEmployeeIds());
+        }
+        return added;
+    }
 
+    /**
+     * Throws a PreconditionFailedException if the client expects a different version than the stored one.
+     */
+    private void checkVersion(ProjectEntity project, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(project.getVersion())) {
+            throw new PreconditionFailedException("Project with ID " + project.getId() + " has version "
+                    + project.getVersion() + ", but version " + expectedVersion + " was expected.");
+        }
+    }
+
+    /**
+     * Increments the project version as part of a direct membership change, which also locks the project row.
+     * Throws a ResourceNotFoundException if the project does not exist,
+     * or a PreconditionFailedException if it does not have the expected version.
+     */
+    private void incrementVersion(Long projectId, Long expectedVersion) {
+        if (expectedVersion == null) {
+            if (projectRepository.incrementVersion(projectId) == 0) {
+                throw new ResourceNotFoundException("Project with ID " + projectId + " not found.");
+            }
+            return;
+        }
+        if (projectRepository.incrementVersionIfMatches(projectId, expectedVersion) == 0) {
+            if (!projectRepository.existsById(projectId)) {
+                throw new ResourceNotFoundException("Project with ID " + projectId + " not found.");
+            }
+            throw new PreconditionFailedException("Project with ID " + projectId + " does not have the expected version " + expectedVersion + ".");
+        }
+    }
+
+    /**
+     * Reads the status of a project whose row is already locked by {@link #incrementVersion}, so that the
+     * deferred validation cannot change it before the transaction ends.
+     */
+    private void requireModifiable(Long projectId) {
+        projectRepository.findStatusById(projectId).ifPresent(status -> requireModifiable(projectId, status));
+    }
+
+    /**
+     * Throws a ProjectNotModifiableException for projects that are pending or rejected by the deferred validation.
+     * A pending project is only changed by the validation; a rejected one has to be created again, because a change
+     * would otherwise only validate what differs from the rejected state.
+     */
+    private static void requireModifiable(Long projectId, ProjectStatus status) {
+        if (status == ProjectStatus.PENDING_VALIDATION || status == ProjectStatus.REJECTED) {
+            throw new ProjectNotModifiableException("Project with ID " + projectId + " is " + status
+                    + " and cannot be changed.");
+        }
+    }
+
+    /**
+     * Saves a project and flushes immediately, so that a violation of the project_assignments
+     * exclusion constraint surfaces here and is translated into an EmployeeNotAvailableException.
+     */
+    private ProjectEntity saveCheckingAssignments(ProjectEntity entity, String conflictMessage) {
+        return checkingAssignments(conflictMessage, () -> projectRepository.saveAndFlush(entity));
+    }
+
+    /**
+     * Runs a write and translates a violation of the project_assignments exclusion constraint
+     * into an EmployeeNotAvailableException with the given message.
+     */
+    private <T> T checkingAssignments(String conflictMessage, Supplier<T> write) {
         try {
-            restTemplate.exchange(url, HttpMethod.GET, entity, Void.class, employeeId);
-        } catch (HttpClientErrorException e) {
-            if (e.getStatusCode().equals(HttpStatus.NOT_FOUND)) {
-                throw new ResourceNotFoundException("Employee with ID " + employeeId + " not found.");
+            return write.get();
+        } catch (DataIntegrityViolationException e) {
+            if (NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                throw new EmployeeNotAvailableException(conflictMessage);
             }
             throw e;
         }
     }
 
     /**
-     * DUMMY METHOD: Validates if a customer with the given ID exists.
+     * Validates if an employee exists via the external employee service.
+     * Throws a ResourceNotFoundException if the employee does not exist.
+     */
+    private void validateEmployeeExists(Long employeeId, String bearerToken) {
+        employeeClient.requireExists(employeeId, bearerToken);
+    }
+
+    /**
+     * Validates if a customer with the given ID exists via the customer directory (cached).
+     * Throws a ResourceNotFoundException if the customer does not exist.
      */
     private void validateCustomerExists(Long customerId) {
-        if (customerId == null) {
-            return;
-        }
-        System.out.println("--> Skipping customer validation (dummy method) for customerId: " + customerId);
+        customerClient.requireExists(customerId);
+    }
+
+    private record ReadKey(Long id, boolean includeArchived) {
     }
-}
\ No newline at end of file
+}
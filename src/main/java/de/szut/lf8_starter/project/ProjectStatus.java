@@ -4,6 +4,18 @@ package de.szut.lf8_starter.project;
  * Represents the lifecycle status of a project.
  */
 public enum ProjectStatus {
+    /**
+     * The project was stored with deferred validation and is waiting for the background check
+     * of its employees. It is promoted to the requested status or rejected.
+     */
+    PENDING_VALIDATION,
+
+    /**
+     * The deferred validation failed, e.g. because an employee does not exist.
+     * The reason is available as the project's validation error.
+     */
+    REJECTED,
+
 
     /**
      * The project has been planned but has not yet started.
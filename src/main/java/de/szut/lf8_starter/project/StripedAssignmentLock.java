@@ -0,0 +1,60 @@
+package de.szut.lf8_starter.project;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-process {@link AssignmentLock} backed by two fixed arrays of lock stripes, one for projects and one for employees.
+ * Memory use is bounded by the stripe count regardless of how many projects or employees exist.
+ * Only protects a single application instance; use {@link AdvisoryAssignmentLock} when running multiple nodes.
+ */
+@Component
+@ConditionalOnProperty(value = "project.assignment-lock.mode", havingValue = "local", matchIfMissing = true)
+public class StripedAssignmentLock implements AssignmentLock {
+
+    private final ReentrantLock[] projectStripes;
+    private final ReentrantLock[] employeeStripes;
+
+    public StripedAssignmentLock(@Value("${project.assignment-lock.stripes:64}") int stripes) {
+        this.projectStripes = createStripes(stripes);
+        this.employeeStripes = createStripes(stripes);
+    }
+
+    @Override
+    public <T> T withLock(Long projectId, Long employeeId, Supplier<T> action) {
+        ReentrantLock projectLock = stripeFor(projectStripes, projectId);
+        ReentrantLock employeeLock = stripeFor(employeeStripes, employeeId);
+
+        projectLock.lock();
+        try {
+            employeeLock.lock();
+            try {
+                return action.get();
+            } finally {
+                employeeLock.unlock();
+            }
+        } finally {
+            projectLock.unlock();
+        }
+    }
+
+    private static ReentrantLock[] createStripes(int stripes) {
+        ReentrantLock[] locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    /**
+     * Spreads sequential database IDs over the stripes with a multiplicative hash.
+     */
+    private static ReentrantLock stripeFor(ReentrantLock[] stripes, Long id) {
+        int hash = Long.hashCode(id) * 0x9E3779B9;
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+}
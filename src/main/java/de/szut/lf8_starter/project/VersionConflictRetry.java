@@ -0,0 +1,54 @@
+package de.szut.lf8_starter.project;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries server-side membership mutations that lost an optimistic version check against a concurrent writer.
+ * Each attempt reloads the project, so a retry re-applies the change on top of the latest state.
+ */
+@Component
+public class VersionConflictRetry {
+
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public VersionConflictRetry(@Value("${project.membership.retry.max-attempts:3}") int maxAttempts,
+                                @Value("${project.membership.retry.backoff-ms:20}") long backoffMillis) {
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    /**
+     * Runs the action, retrying with a linearly growing, jittered backoff on optimistic locking failures.
+     *
+     * @param action the complete load-mutate-save sequence.
+     * @return the result of the first successful attempt.
+     */
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    private void backOff(int attempt, OptimisticLockingFailureException cause) {
+        long delay = backoffMillis * attempt + ThreadLocalRandom.current().nextLong(backoffMillis + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package de.szut.lf8_starter.project.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import de.szut.lf8_starter.employee.dto.EmployeeDto;
 import lombok.Data;
 
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -13,4 +16,16 @@ public class GetEmployeesOfProjectDto {
     private Long projectId;
     private String projectName;
     private Set<Long> employeeIds;
+
+    /**
+     * The details of the employees, only with expand=employees.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<EmployeeDto> employees;
+
+    /**
+     * The employees whose details could not be fetched (not found, failed or too slow), only with expand=employees.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Set<Long> unresolvedEmployeeIds;
 }
\ No newline at end of file
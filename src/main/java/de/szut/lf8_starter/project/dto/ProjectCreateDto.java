@@ -1,6 +1,8 @@
 package de.szut.lf8_starter.project.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import de.szut.lf8_starter.project.ProjectStatus;
+import jakarta.validation.constraints.AssertFalse;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -54,6 +56,7 @@ public class ProjectCreateDto {
 
     /**
      * The initial status of the project. If not provided, it defaults to PLANNED.
+     * PENDING_VALIDATION and REJECTED are set by the deferred validation only.
      */
     private ProjectStatus status;
 
@@ -61,4 +64,13 @@ public class ProjectCreateDto {
      * A set of employee IDs assigned to the project.
      */
     private Set<Long> employeeIds;
+
+    /**
+     * True if the status is one that only the deferred validation may set.
+     */
+    @JsonIgnore
+    @AssertFalse(message = "Status PENDING_VALIDATION and REJECTED are set by the deferred validation only.")
+    public boolean isValidationStatus() {
+        return status == ProjectStatus.PENDING_VALIDATION || status == ProjectStatus.REJECTED;
+    }
 }
\ No newline at end of file
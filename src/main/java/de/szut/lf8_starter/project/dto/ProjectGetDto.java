@@ -29,5 +29,9 @@ public class ProjectGetDto {
 
     private ProjectStatus status;
 
+    private String validationError;
+
     private Set<Long> employeeIds;
+
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package de.szut.lf8_starter.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the outcome of a bulk import.
+ * Used as the response body for POST /projects/import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectImportResultDto {
+    private int imported;
+    private int failed;
+
+    /**
+     * The errors by line number, limited to the first errors of the import.
+     */
+    private List<LineError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        private int line;
+        private String message;
+    }
+}
@@ -0,0 +1,92 @@
+package de.szut.lf8_starter.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of in-flight requests of one route class with a limit that adapts to the observed latency
+ * (gradient algorithm): while the short-term latency stays close to the long-term average the limit grows
+ * by about its square root, and when latency rises the limit shrinks proportionally.
+ * Requests above the limit are rejected immediately instead of queueing on a Tomcat thread.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+
+    private volatile double limit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(String routeClass, int initialLimit, int minLimit, int maxLimit, MeterRegistry meterRegistry) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        Gauge.builder("project.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit of in-flight requests")
+                .tag("route", routeClass)
+                .register(meterRegistry);
+        Gauge.builder("project.concurrency.in-flight", inFlight, AtomicInteger::get)
+                .description("Requests currently being processed")
+                .tag("route", routeClass)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("project.concurrency.rejected")
+                .description("Requests shed because the concurrency limit was reached")
+                .tag("route", routeClass)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserves a slot for a request.
+     *
+     * @return false if the limit is reached and the request should be shed.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot of a finished request and adapts the limit to its latency.
+     *
+     * @param rttNanos the processing time of the request.
+     */
+    public void release(long rttNanos) {
+        int inFlightAtEnd = inFlight.getAndDecrement();
+        onSample(rttNanos, inFlightAtEnd);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtEnd) {
+        longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos + (rttNanos - longRttNanos) / LONG_WINDOW;
+
+        // An application that does not use half of its limit tells nothing about the right limit.
+        if (inFlightAtEnd < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
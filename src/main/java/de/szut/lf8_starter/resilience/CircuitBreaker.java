@@ -0,0 +1,138 @@
+package de.szut.lf8_starter.resilience;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * Count-based circuit breaker for calls to a remote service.
+ * <ul>
+ *     <li>CLOSED: calls pass; once at least minimum-calls of the last window-size calls were recorded and the
+ *     failure rate reaches the threshold, the breaker opens.</li>
+ *     <li>OPEN: calls are refused without waiting for the remote service, until open-duration has passed.</li>
+ *     <li>HALF_OPEN: up to half-open-probes calls are let through; a success closes the breaker, a failure
+ *     opens it again.</li>
+ * </ul>
+ * The state is exported as gauge project.circuit-breaker.state (0 closed, 1 open, 2 half-open) and transitions
+ * are counted as project.circuit-breaker.transitions, tagged with name and the new state.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+    private final MeterRegistry meterRegistry;
+
+    private State state = State.CLOSED;
+    private int recordedCalls;
+    private int failures;
+    private int position;
+    private long openedAt;
+    private int probesInFlight;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenProbes, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("project.circuit-breaker.state", this, breaker -> breaker.getState().ordinal())
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns true if a call may be made now. Every permitted call must be followed by
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes) {
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.CLOSED);
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recordedCalls >= minimumCalls
+                && failures >= failureRateThreshold * recordedCalls) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * Releases the permission of a call whose outcome says nothing about the remote service, e.g. one the caller
+     * gave up on. It is not recorded, and a half-open probe slot becomes free again.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && probesInFlight > 0) {
+            probesInFlight--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recordedCalls == window.length) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        window[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+    }
+
+    private void transitionTo(State newState) {
+        state = newState;
+        probesInFlight = 0;
+        if (newState == State.OPEN) {
+            openedAt = System.nanoTime();
+        }
+        if (newState != State.HALF_OPEN) {
+            // every closed or open period is judged by its own calls
+            recordedCalls = 0;
+            failures = 0;
+            position = 0;
+        }
+        meterRegistry.counter("project.circuit-breaker.transitions", "name", name, "state", newState.name()).increment();
+    }
+}
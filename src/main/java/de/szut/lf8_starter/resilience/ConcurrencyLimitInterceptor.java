@@ -0,0 +1,45 @@
+package de.szut.lf8_starter.resilience;
+
+import de.szut.lf8_starter.exceptionHandling.ServiceOverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits project requests through one adaptive limiter for reads and one for writes, so that slow writes
+ * (which call the employee API) cannot starve cheap reads. Shed requests fail fast with a 503.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String STARTED_AT = ConcurrencyLimitInterceptor.class.getName() + ".startedAt";
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+
+    public ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimiter readLimiter, AdaptiveConcurrencyLimiter writeLimiter) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!limiterFor(request).tryAcquire()) {
+            throw new ServiceOverloadedException("The service is at its capacity, please retry later");
+        }
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(STARTED_AT) instanceof Long startedAt) {
+            limiterFor(request).release(System.nanoTime() - startedAt);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())
+                ? readLimiter : writeLimiter;
+    }
+}
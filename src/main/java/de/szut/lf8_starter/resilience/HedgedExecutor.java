@@ -0,0 +1,203 @@
+package de.szut.lf8_starter.resilience;
+
+import de.szut.lf8_starter.exceptionHandling.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Runs idempotent remote calls with hedging and retries, within a deadline.
+ * <ul>
+ *     <li>If an attempt has not answered after the configured percentile of recent latencies, a second attempt is
+ *     sent; the first answer wins and the other attempt is cancelled (its thread is interrupted).</li>
+ *     <li>Attempts failing with a transient error are retried with exponential backoff and full jitter.</li>
+ *     <li>Hedges and retries take from a budget that grows by budget-ratio per call, so they add at most that
+ *     share of extra load, also when the remote service is slow for everyone.</li>
+ * </ul>
+ * Metrics: project.hedging.attempts (tagged with kind hedge/retry), project.hedging.hedge-wins and
+ * project.hedging.budget-exhausted, each tagged with name.
+ */
+public class HedgedExecutor implements AutoCloseable {
+
+    private static final int LATENCY_SAMPLES = 512;
+    private static final int MIN_SAMPLES = 20;
+    private static final long BUDGET_UNIT = 1000;
+    private static final long MAX_BUDGET = 10 * BUDGET_UNIT;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long budgetPerCall;
+    private final int maxRetries;
+    private final long retryBackoffNanos;
+    private final Predicate<Throwable> transientFailure;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final AtomicLong budget = new AtomicLong(MAX_BUDGET);
+
+    private final Counter hedges;
+    private final Counter retries;
+    private final Counter hedgeWins;
+    private final Counter budgetExhausted;
+
+    /**
+     * @param name             tags the metrics.
+     * @param percentile       the latency percentile (0..1) after which a hedge is sent.
+     * @param minDelay         the lower bound of the hedge delay.
+     * @param budgetRatio      extra attempts (hedges and retries) allowed per call, e.g. 0.1 for 10 percent.
+     * @param maxRetries       the maximum retries after the first attempt.
+     * @param retryBackoff     the base of the exponential retry backoff.
+     * @param transientFailure decides which failures are worth another attempt.
+     */
+    public HedgedExecutor(String name, double percentile, Duration minDelay, double budgetRatio, int maxRetries,
+                          Duration retryBackoff, Predicate<Throwable> transientFailure, MeterRegistry meterRegistry) {
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.budgetPerCall = Math.round(budgetRatio * BUDGET_UNIT);
+        this.maxRetries = maxRetries;
+        this.retryBackoffNanos = retryBackoff.toNanos();
+        this.transientFailure = transientFailure;
+        this.hedges = Counter.builder("project.hedging.attempts").tag("name", name).tag("kind", "hedge").register(meterRegistry);
+        this.retries = Counter.builder("project.hedging.attempts").tag("name", name).tag("kind", "retry").register(meterRegistry);
+        this.hedgeWins = Counter.builder("project.hedging.hedge-wins").tag("name", name).register(meterRegistry);
+        this.budgetExhausted = Counter.builder("project.hedging.budget-exhausted").tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Runs the call, hedged and retried as needed.
+     * Throws the failure of the last attempt, or a DeadlineExceededException if the deadline passed first.
+     *
+     * @param call          the idempotent call.
+     * @param deadlineNanos the deadline in System.nanoTime() terms.
+     * @return the result of the first successful attempt.
+     */
+    public <T> T call(Supplier<T> call, long deadlineNanos) {
+        budget.getAndUpdate(available -> Math.min(MAX_BUDGET, available + budgetPerCall));
+        for (int retry = 0; ; retry++) {
+            try {
+                return hedged(call, deadlineNanos);
+            } catch (RuntimeException e) {
+                if (e instanceof DeadlineExceededException || !transientFailure.test(e) || retry >= maxRetries) {
+                    throw e;
+                }
+                long backoff = ThreadLocalRandom.current().nextLong((retryBackoffNanos << Math.min(retry, 16)) + 1);
+                if (System.nanoTime() + backoff - deadlineNanos >= 0 || !takeBudget()) {
+                    throw e;
+                }
+                retries.increment();
+                sleep(backoff);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T hedged(Supplier<T> call, long deadlineNanos) {
+        CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        List<Future<T>> attempts = new ArrayList<>(2);
+        long startedAt = System.nanoTime();
+        try {
+            attempts.add(completion.submit(call::get));
+            long hedgeDelay = hedgeDelayNanos();
+            Future<T> done = completion.poll(Math.min(hedgeDelay, deadlineNanos - startedAt), TimeUnit.NANOSECONDS);
+            if (done == null && hedgeDelay != Long.MAX_VALUE && System.nanoTime() - deadlineNanos < 0 && takeBudget()) {
+                hedges.increment();
+                attempts.add(completion.submit(call::get));
+            }
+            int outstanding = attempts.size();
+            while (true) {
+                if (done == null) {
+                    long remaining = deadlineNanos - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new DeadlineExceededException("The remote call did not complete before the deadline");
+                    }
+                    done = completion.poll(remaining, TimeUnit.NANOSECONDS);
+                    continue;
+                }
+                outstanding--;
+                try {
+                    T result = done.get();
+                    record(System.nanoTime() - startedAt);
+                    if (done != attempts.get(0)) {
+                        hedgeWins.increment();
+                    }
+                    return result;
+                } catch (ExecutionException e) {
+                    RuntimeException failure = e.getCause() instanceof RuntimeException cause
+                            ? cause : new IllegalStateException(e.getCause());
+                    if (outstanding > 0 && transientFailure.test(failure)) {
+                        // the other attempt may still succeed
+                        done = null;
+                        continue;
+                    }
+                    if (!transientFailure.test(failure)) {
+                        // a definitive answer, e.g. "not found", is a response time like any other
+                        record(System.nanoTime() - startedAt);
+                    }
+                    throw failure;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Interrupted while waiting for the remote call");
+        } finally {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    private boolean takeBudget() {
+        if (budget.getAndUpdate(available -> available >= BUDGET_UNIT ? available - BUDGET_UNIT : available) >= BUDGET_UNIT) {
+            return true;
+        }
+        budgetExhausted.increment();
+        return false;
+    }
+
+    private void record(long latencyNanos) {
+        latencies[Math.floorMod(recorded.getAndIncrement(), LATENCY_SAMPLES)] = latencyNanos;
+    }
+
+    /**
+     * Returns the configured percentile of the recent latencies, or Long.MAX_VALUE (no hedging) until enough
+     * calls were seen. The racy read of the sample array is fine for an estimate.
+     */
+    private long hedgeDelayNanos() {
+        int count = Math.min(recorded.get(), LATENCY_SAMPLES);
+        if (count < MIN_SAMPLES) {
+            return Long.MAX_VALUE;
+        }
+        long[] samples = Arrays.copyOf(latencies, count);
+        Arrays.sort(samples);
+        int index = Math.min(count - 1, (int) Math.ceil(percentile * count) - 1);
+        return Math.max(minDelayNanos, samples[Math.max(0, index)]);
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Interrupted while waiting to retry the remote call");
+        }
+    }
+}
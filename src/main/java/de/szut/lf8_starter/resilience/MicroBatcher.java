@@ -0,0 +1,112 @@
+package de.szut.lf8_starter.resilience;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects the keys requested by all concurrent callers during a short window (dataloader style),
+ * dedupes them and then loads every distinct key once, concurrently. Each caller gets its own future.
+ * A batch is dispatched when the window ends or as soon as it reaches maxBatchSize keys.
+ * Batch sizes are recorded in the project.batch.size histogram per name.
+ */
+public class MicroBatcher<K, V> implements AutoCloseable {
+
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Function<K, V> loader;
+    private final DistributionSummary batchSizes;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService loadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledDispatch;
+
+    public MicroBatcher(String name, Duration window, int maxBatchSize, Function<K, V> loader, MeterRegistry meterRegistry) {
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.loader = loader;
+        this.batchSizes = DistributionSummary.builder("project.batch.size")
+                .description("Distinct keys loaded per batch")
+                .tag("name", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name(name + "-batcher").factory());
+    }
+
+    /**
+     * Requests a key. Callers asking for a key that is already part of the pending batch share its future.
+     *
+     * @param key the key to load.
+     * @return a future completed with the loaded value, or exceptionally with the loader's exception.
+     */
+    public CompletableFuture<V> load(K key) {
+        Map<K, CompletableFuture<V>> fullBatch = null;
+        CompletableFuture<V> future;
+        synchronized (this) {
+            future = pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = takePending();
+            } else if (pending.size() == 1) {
+                scheduledDispatch = scheduler.schedule(this::dispatchPending, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return future;
+    }
+
+    private void dispatchPending() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    private Map<K, CompletableFuture<V>> takePending() {
+        Map<K, CompletableFuture<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        if (scheduledDispatch != null) {
+            scheduledDispatch.cancel(false);
+            scheduledDispatch = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+        batch.forEach((key, future) -> loadExecutor.execute(() -> {
+            try {
+                future.complete(loader.apply(key));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }));
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        loadExecutor.shutdown();
+    }
+}
@@ -0,0 +1,44 @@
+package de.szut.lf8_starter.resilience;
+
+import java.time.Duration;
+
+/**
+ * The deadline of the request handled by the current thread, set by the {@link RequestDeadlineInterceptor}.
+ * Outgoing calls made for the request should give up once it has passed, since nobody waits for the answer anymore.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Sets the deadline of the current request to now plus the timeout.
+     */
+    public static void start(Duration timeout) {
+        DEADLINE_NANOS.set(System.nanoTime() + timeout.toNanos());
+    }
+
+    public static void clear() {
+        DEADLINE_NANOS.remove();
+    }
+
+    /**
+     * Returns the deadline of the current request in System.nanoTime() terms, or the fallback if there is none
+     * (e.g. on background threads) or the fallback is earlier.
+     */
+    public static long nanosOr(long fallbackNanos) {
+        Long deadline = DEADLINE_NANOS.get();
+        return deadline == null || fallbackNanos - deadline < 0 ? fallbackNanos : deadline;
+    }
+
+    /**
+     * Returns the nanoseconds left until the deadline of the current request, or -1 if there is no deadline.
+     * An expired deadline returns 0.
+     */
+    public static long remainingNanos() {
+        Long deadline = DEADLINE_NANOS.get();
+        return deadline == null ? -1 : Math.max(0, deadline - System.nanoTime());
+    }
+}
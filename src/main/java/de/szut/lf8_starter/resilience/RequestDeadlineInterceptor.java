@@ -0,0 +1,46 @@
+package de.szut.lf8_starter.resilience;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Gives every request a deadline: the configured default, shortened by a client-sent X-Request-Timeout
+ * (in milliseconds) so that callers with their own timeout do not keep work running after they gave up.
+ */
+public class RequestDeadlineInterceptor implements HandlerInterceptor {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private final Duration defaultTimeout;
+
+    public RequestDeadlineInterceptor(Duration defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestDeadline.start(timeoutOf(request));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestDeadline.clear();
+    }
+
+    private Duration timeoutOf(HttpServletRequest request) {
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header == null) {
+            return defaultTimeout;
+        }
+        try {
+            long millis = Long.parseLong(header.trim());
+            return millis > 0 && millis < defaultTimeout.toMillis() ? Duration.ofMillis(millis) : defaultTimeout;
+        } catch (NumberFormatException e) {
+            return defaultTimeout;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package de.szut.lf8_starter.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls: the first caller for a key runs the computation,
+ * callers arriving while it is in flight wait for and share its result (or exception).
+ * Nothing is cached, the next call after completion runs again.
+ * The number of executed and collapsed calls is counted as project.single-flight.calls per name.
+ */
+@Component
+@RequiredArgsConstructor
+public class SingleFlight {
+
+    private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Runs the computation for the key, or joins the one already in flight.
+     *
+     * @param name        the kind of call, used to separate keys and tag the metrics.
+     * @param key         identifies identical calls; must implement equals and hashCode.
+     * @param computation the call to run.
+     * @return the result of the shared computation.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Object key, Supplier<T> computation) {
+        Key flightKey = new Key(name, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            meterRegistry.counter("project.single-flight.calls", "name", name, "result", "collapsed").increment();
+            return (T) join(existing);
+        }
+
+        meterRegistry.counter("project.single-flight.calls", "name", name, "result", "executed").increment();
+        try {
+            T result = computation.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(String name, Object key) {
+    }
+}
@@ -1,5 +1,6 @@
 package de.szut.lf8_starter.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
@@ -11,6 +12,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -27,6 +29,24 @@ public class AuthentikSecurityConfig {
     @Value("${authentik.jwk-set-uri}")
     private String jwkSetUri;
 
+    @Value("${project.rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${project.rate-limit.read.capacity:200}")
+    private long readCapacity;
+
+    @Value("${project.rate-limit.read.refill-per-second:50}")
+    private double readRefillPerSecond;
+
+    @Value("${project.rate-limit.write.capacity:50}")
+    private long writeCapacity;
+
+    @Value("${project.rate-limit.write.refill-per-second:10}")
+    private double writeRefillPerSecond;
+
+    @Value("${project.rate-limit.max-clients:10000}")
+    private int rateLimitMaxClients;
+
     @Bean
     @Profile("!it")
     public JwtDecoder jwtDecoder() {
@@ -34,7 +54,7 @@ public class AuthentikSecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, ObjectMapper objectMapper) throws Exception {
         http
                 .cors(Customizer.withDefaults())
                 .csrf(csrf -> csrf.disable())
@@ -48,6 +68,13 @@ public class AuthentikSecurityConfig {
                         .requestMatchers("/projects", "/projects/**").authenticated()
                         .anyRequest().permitAll()
                 );
+        if (rateLimitEnabled) {
+            // Created here instead of as a bean, so that Spring Boot does not register it a second time as a servlet filter.
+            http.addFilterAfter(new RateLimitFilter(
+                    new RateLimitFilter.Limit(readCapacity, readRefillPerSecond),
+                    new RateLimitFilter.Limit(writeCapacity, writeRefillPerSecond),
+                    rateLimitMaxClients, objectMapper), BearerTokenAuthenticationFilter.class);
+        }
 
         return http.build();
     }
@@ -57,7 +84,10 @@ public class AuthentikSecurityConfig {
         CorsConfiguration cfg = new CorsConfiguration();
         cfg.setAllowedOriginPatterns(List.of("*"));
         cfg.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        cfg.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With"));
+        cfg.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With",
+                "If-Match", "Prefer", "X-Callback-Url", "X-Request-Timeout"));
+        // response headers that browser clients need to read: versions for If-Match, async creation and rate limits
+        cfg.setExposedHeaders(List.of("ETag", "Location", "Preference-Applied", "Retry-After"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", cfg);
@@ -0,0 +1,116 @@
+package de.szut.lf8_starter.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.szut.lf8_starter.exceptionHandling.ErrorDetails;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the request rate per client (JWT subject, or the remote address for anonymous requests)
+ * with separate token buckets for read and write requests. Rejected requests get a 429 with Retry-After.
+ * At most maxClients buckets are kept: once reached, full buckets (which carry no state) are evicted first and then
+ * arbitrary ones, down to 90 percent of maxClients, so that the eviction scan runs only once per tenth of new clients.
+ * A client whose bucket was evicted starts again with a full bucket.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of(
+            HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    private final Limit readLimit;
+    private final Limit writeLimit;
+    private final int maxClients;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(Limit readLimit, Limit writeLimit, int maxClients, ObjectMapper objectMapper) {
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+        this.maxClients = maxClients;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean read = READ_METHODS.contains(request.getMethod());
+        long now = System.nanoTime();
+        long waitNanos = bucketFor(clientOf(request), read, now).tryConsume(now);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorDetails(new Date(),
+                "Too many " + (read ? "read" : "write") + " requests, retry in " + retryAfterSeconds + " seconds",
+                "uri=" + request.getRequestURI()));
+    }
+
+    private TokenBucket bucketFor(String client, boolean read, long now) {
+        String key = (read ? "r:" : "w:") + client;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            evict(now);
+        }
+        Limit limit = read ? readLimit : writeLimit;
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(limit.capacity(), limit.refillPerSecond(), now));
+    }
+
+    private synchronized void evict(long now) {
+        if (buckets.size() < maxClients) {
+            // another request evicted already
+            return;
+        }
+        int target = maxClients - Math.max(1, maxClients / 10);
+        buckets.values().removeIf(idle -> idle.isFull(now));
+        Iterator<TokenBucket> remaining = buckets.values().iterator();
+        while (buckets.size() > target && remaining.hasNext()) {
+            remaining.next();
+            remaining.remove();
+        }
+    }
+
+    /**
+     * Returns the number of buckets currently kept.
+     */
+    int trackedClients() {
+        return buckets.size();
+    }
+
+    private static String clientOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Burst size and sustained rate of one bucket.
+     */
+    public record Limit(long capacity, double refillPerSecond) {
+    }
+}
@@ -0,0 +1,47 @@
+package de.szut.lf8_starter.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, stored as a single "theoretical arrival time" (the generic cell rate algorithm).
+ * The bucket is full when that time lies in the past; every request pushes it one refill interval further,
+ * and a request is rejected if that would move it more than the bucket capacity ahead of now.
+ */
+class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.intervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.toleranceNanos = intervalNanos * capacity;
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 if a token was available, otherwise the nanoseconds until the next token is available.
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalNanos.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long waitNanos = next - toleranceNanos - nowNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns true if the bucket has refilled completely, so it can be dropped without losing state.
+     */
+    boolean isFull(long nowNanos) {
+        return theoreticalArrivalNanos.get() <= nowNanos;
+    }
+}
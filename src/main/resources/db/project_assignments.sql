@@ -0,0 +1,88 @@
+-- Denormalised view of who is scheduled when. One row per (project, employee) for the
+-- responsible employee and every team member of a project that has both a start and an end date.
+-- The exclusion constraint makes double-booking an employee impossible, even for concurrent writers.
+-- Statements use a custom separator (see spring.sql.init.separator) because function bodies contain semicolons.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist@@
+
+DROP TABLE IF EXISTS project_assignments@@
+
+CREATE TABLE project_assignments
+(
+    project_id  BIGINT    NOT NULL REFERENCES projects (id) ON DELETE CASCADE,
+    employee_id BIGINT    NOT NULL,
+    period      DATERANGE NOT NULL,
+    PRIMARY KEY (project_id, employee_id),
+    CONSTRAINT project_assignments_no_overlap
+        EXCLUDE USING gist (employee_id WITH =, period WITH &&, project_id WITH <>)
+)@@
+
+CREATE OR REPLACE FUNCTION sync_project_assignments() RETURNS TRIGGER AS
+$$
+BEGIN
+    DELETE FROM project_assignments WHERE project_id = NEW.id;
+    IF NEW.start_date IS NOT NULL AND NEW.end_date IS NOT NULL THEN
+        INSERT INTO project_assignments (project_id, employee_id, period)
+        SELECT NEW.id, e.employee_id, daterange(NEW.start_date, NEW.end_date, '[]')
+        FROM (SELECT NEW.responsible_employee_id AS employee_id
+              UNION
+              SELECT pe.employee_id FROM project_employees pe WHERE pe.project_id = NEW.id) e;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql@@
+
+CREATE OR REPLACE FUNCTION add_project_employee_assignment() RETURNS TRIGGER AS
+$$
+BEGIN
+    INSERT INTO project_assignments (project_id, employee_id, period)
+    SELECT p.id, NEW.employee_id, daterange(p.start_date, p.end_date, '[]')
+    FROM projects p
+    WHERE p.id = NEW.project_id
+      AND p.start_date IS NOT NULL
+      AND p.end_date IS NOT NULL
+    -- only the responsible employee's existing row; an overlap with another project must still fail
+    ON CONFLICT (project_id, employee_id) DO NOTHING;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql@@
+
+CREATE OR REPLACE FUNCTION remove_project_employee_assignment() RETURNS TRIGGER AS
+$$
+BEGIN
+    DELETE FROM project_assignments a
+    WHERE a.project_id = OLD.project_id
+      AND a.employee_id = OLD.employee_id
+      AND NOT EXISTS (SELECT 1 FROM projects p
+                      WHERE p.id = OLD.project_id AND p.responsible_employee_id = OLD.employee_id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql@@
+
+CREATE TRIGGER projects_insert_assignments
+    AFTER INSERT
+    ON projects
+    FOR EACH ROW
+EXECUTE FUNCTION sync_project_assignments()@@
+
+-- Only re-checks the whole team (in one INSERT ... SELECT) when the schedule or the responsible employee changes.
+CREATE TRIGGER projects_update_assignments
+    AFTER UPDATE
+    ON projects
+    FOR EACH ROW
+    WHEN (OLD.start_date IS DISTINCT FROM NEW.start_date
+        OR OLD.end_date IS DISTINCT FROM NEW.end_date
+        OR OLD.responsible_employee_id IS DISTINCT FROM NEW.responsible_employee_id)
+EXECUTE FUNCTION sync_project_assignments()@@
+
+CREATE TRIGGER project_employees_add_assignment
+    AFTER INSERT
+    ON project_employees
+    FOR EACH ROW
+EXECUTE FUNCTION add_project_employee_assignment()@@
+
+CREATE TRIGGER project_employees_remove_assignment
+    AFTER DELETE
+    ON project_employees
+    FOR EACH ROW
+EXECUTE FUNCTION remove_project_employee_assignment()@@
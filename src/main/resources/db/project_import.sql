@@ -0,0 +1,31 @@
+-- Staging tables for POST /projects/import. Rows are loaded with COPY, validated, merged into projects
+-- and then deleted again. UNLOGGED, because their content never has to survive a crash.
+
+DROP TABLE IF EXISTS project_import_members@@
+
+DROP TABLE IF EXISTS project_import_rows@@
+
+CREATE UNLOGGED TABLE project_import_rows
+(
+    import_id               UUID    NOT NULL,
+    line                    INTEGER NOT NULL,
+    project_id              BIGINT,
+    name                    TEXT    NOT NULL,
+    description             TEXT,
+    customer_id             BIGINT,
+    responsible_employee_id BIGINT  NOT NULL,
+    start_date              DATE,
+    end_date                DATE,
+    status                  TEXT    NOT NULL,
+    error                   TEXT,
+    PRIMARY KEY (import_id, line)
+)@@
+
+CREATE UNLOGGED TABLE project_import_members
+(
+    import_id   UUID    NOT NULL,
+    line        INTEGER NOT NULL,
+    employee_id BIGINT  NOT NULL
+)@@
+
+CREATE INDEX project_import_members_line ON project_import_members (import_id, line)@@
@@ -0,0 +1,85 @@
+package de.szut.lf8_starter.customer;
+
+import de.szut.lf8_starter.exceptionHandling.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CustomerClientTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Set<Long>> lookups = new ArrayList<>();
+    private final StubCustomerDirectory stub = new StubCustomerDirectory(List.of(13L));
+    private final CustomerDirectory directory = customerIds -> {
+        lookups.add(Set.copyOf(customerIds));
+        return stub.findMissing(customerIds);
+    };
+
+    private CustomerClient client(Duration ttl, int maxEntries) {
+        return new CustomerClient(directory, meterRegistry, ttl, maxEntries);
+    }
+
+    @Test
+    public void looksUpUncachedCustomersInOneBatch() {
+        CustomerClient client = client(Duration.ofMinutes(10), 100);
+
+        client.requireAllExist(Arrays.asList(1L, 2L, null, 2L));
+        client.requireAllExist(List.of(2L, 3L));
+
+        assertThat(lookups).containsExactly(Set.of(1L, 2L), Set.of(3L));
+        assertThat(meterRegistry.get("project.customer.cache").tag("result", "hit").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void unknownCustomerIsRejectedAlsoFromTheCache() {
+        CustomerClient client = client(Duration.ofMinutes(10), 100);
+
+        assertThatThrownBy(() -> client.requireExists(13L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Customer with ID 13 not found.");
+        assertThatThrownBy(() -> client.requireExists(13L)).isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(lookups).hasSize(1);
+    }
+
+    @Test
+    public void expiredAnswersAreLookedUpAgain() {
+        CustomerClient client = client(Duration.ZERO, 100);
+
+        client.requireExists(1L);
+        client.requireExists(1L);
+
+        assertThat(lookups).hasSize(2);
+    }
+
+    @Test
+    public void noCustomerNeedsNoLookup() {
+        CustomerClient client = client(Duration.ofMinutes(10), 100);
+
+        client.requireExists(null);
+
+        assertThat(lookups).isEmpty();
+    }
+
+    @Test
+    public void cacheStaysBounded() {
+        CustomerClient client = client(Duration.ofMinutes(10), 2);
+        Collection<Long> customerIds = List.of(1L, 2L, 3L, 4L);
+
+        client.requireAllExist(customerIds);
+        client.requireAllExist(customerIds);
+
+        // at most two answers survived, so the second validation looks up at least two customers again
+        assertThat(lookups).hasSize(2);
+        assertThat(lookups.get(1)).hasSizeGreaterThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,85 @@
+package de.szut.lf8_starter.employee;
+
+import de.szut.lf8_starter.exceptionHandling.DeadlineExceededException;
+import de.szut.lf8_starter.resilience.RequestDeadline;
+import de.szut.lf8_starter.resilience.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EmployeeClientTest {
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmployeeClient client;
+
+    private EmployeeClient client(Duration batchWindow, Duration callTimeout) {
+        client = new EmployeeClient(restTemplate, mock(ServiceAccountTokenProvider.class),
+                new SingleFlight(meterRegistry), meterRegistry, "forward", batchWindow, 50, callTimeout,
+                0.95, Duration.ofMillis(50), 0.1, 0, Duration.ofMillis(50),
+                4, 2, 0.5, Duration.ofMinutes(1), 1,
+                Duration.ofHours(1), Duration.ofSeconds(1), Duration.ofMinutes(5), 100);
+        return client;
+    }
+
+    private void answerSlowly() {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(500);
+                    return ResponseEntity.ok().build();
+                });
+    }
+
+    private double breakerState() {
+        return meterRegistry.get("project.circuit-breaker.state").tag("name", "employee-api").gauge().value();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestDeadline.clear();
+        client.close();
+    }
+
+    @Test
+    public void shortCallerDeadlinesDoNotOpenTheCircuit() throws InterruptedException {
+        answerSlowly();
+        EmployeeClient employeeClient = client(Duration.ofMillis(1), Duration.ofSeconds(3));
+
+        for (long employeeId = 1; employeeId <= 6; employeeId++) {
+            RequestDeadline.start(Duration.ofMillis(20));
+            long id = employeeId;
+            assertThatThrownBy(() -> employeeClient.requireExists(id, "Bearer token"))
+                    .isInstanceOf(DeadlineExceededException.class);
+            RequestDeadline.clear();
+        }
+        // the batched lookups give up at the callers' deadline shortly after them
+        Thread.sleep(100);
+
+        assertThat(breakerState()).isEqualTo(0.0);
+    }
+
+    @Test
+    public void callTimeoutsOpenTheCircuit() {
+        answerSlowly();
+        EmployeeClient employeeClient = client(Duration.ZERO, Duration.ofMillis(20));
+
+        for (long employeeId = 1; employeeId <= 2; employeeId++) {
+            long id = employeeId;
+            assertThatThrownBy(() -> employeeClient.requireExists(id, "Bearer token"))
+                    .isInstanceOf(DeadlineExceededException.class);
+        }
+
+        assertThat(breakerState()).isEqualTo(1.0);
+    }
+}
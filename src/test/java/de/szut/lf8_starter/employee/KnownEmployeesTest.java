@@ -0,0 +1,30 @@
+package de.szut.lf8_starter.employee;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KnownEmployeesTest {
+
+    @Test
+    public void staysBoundedAlsoWithFreshAnswers() {
+        KnownEmployees<Long> knownEmployees = new KnownEmployees<>(Duration.ofHours(1), 100);
+
+        for (long employeeId = 1; employeeId <= 1000; employeeId++) {
+            knownEmployees.remember(employeeId, true);
+        }
+
+        assertThat(knownEmployees.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    public void staleAnswerIsNotUsed() {
+        KnownEmployees<Long> knownEmployees = new KnownEmployees<>(Duration.ZERO, 100);
+
+        knownEmployees.remember(1L, false);
+
+        assertThat(knownEmployees.lastKnown(1L)).isNull();
+    }
+}
@@ -0,0 +1,66 @@
+package de.szut.lf8_starter.employee;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ServiceAccountTokenProviderTest {
+
+    private static final String TOKEN_URI = "http://localhost/token";
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+
+    private ServiceAccountTokenProvider provider(Duration refreshBefore) {
+        return new ServiceAccountTokenProvider(restTemplate, TOKEN_URI, "client", "user", "secret", "openid", refreshBefore);
+    }
+
+    @Test
+    public void fetchesTheTokenOnceAndSharesIt() {
+        when(restTemplate.postForObject(eq(TOKEN_URI), any(HttpEntity.class), eq(Map.class)))
+                .thenReturn(Map.of("access_token", "first", "expires_in", 3600));
+        ServiceAccountTokenProvider provider = provider(Duration.ofSeconds(60));
+
+        assertThat(provider.getAuthorization()).isEqualTo("Bearer first");
+        assertThat(provider.getAuthorization()).isEqualTo("Bearer first");
+
+        verify(restTemplate, times(1)).postForObject(eq(TOKEN_URI), any(HttpEntity.class), eq(Map.class));
+    }
+
+    @Test
+    public void renewsInTheBackgroundBeforeExpiry() {
+        when(restTemplate.postForObject(eq(TOKEN_URI), any(HttpEntity.class), eq(Map.class)))
+                .thenReturn(Map.of("access_token", "first", "expires_in", 30))
+                .thenReturn(Map.of("access_token", "second", "expires_in", 3600));
+        ServiceAccountTokenProvider provider = provider(Duration.ofSeconds(60));
+
+        assertThat(provider.getAuthorization()).isEqualTo("Bearer first");
+        // within refresh-before: the valid token is returned while a new one is fetched
+        assertThat(provider.getAuthorization()).isEqualTo("Bearer first");
+
+        verify(restTemplate, timeout(5000).times(2)).postForObject(eq(TOKEN_URI), any(HttpEntity.class), eq(Map.class));
+    }
+
+    @Test
+    public void invalidatedTokenIsFetchedAgain() {
+        when(restTemplate.postForObject(eq(TOKEN_URI), any(HttpEntity.class), eq(Map.class)))
+                .thenReturn(Map.of("access_token", "first", "expires_in", 3600))
+                .thenReturn(Map.of("access_token", "second", "expires_in", 3600));
+        ServiceAccountTokenProvider provider = provider(Duration.ofSeconds(60));
+
+        provider.invalidate(provider.getAuthorization());
+
+        assertThat(provider.getAuthorization()).isEqualTo("Bearer second");
+    }
+}
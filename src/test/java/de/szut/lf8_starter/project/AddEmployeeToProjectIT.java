@@ -14,12 +14,14 @@ import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -93,4 +95,44 @@ public class AddEmployeeToProjectIT extends AbstractIntegrationTest {
                         .content(requestJson))
                 .andExpect(status().isConflict());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser
+    public void addEmployeeWithIfMatch_VersionCheck() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), eq(4L)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Versioniertes Projekt");
+        project.setResponsibleEmployeeId(1L);
+        project.setEmployeeIds(new HashSet<>());
+        ProjectEntity savedProject = projectRepository.save(project);
+        Long projectId = savedProject.getId();
+        Long version = savedProject.getVersion();
+
+        String requestJson = """
+                {
+                  "employeeId": 4
+                }
+                """;
+
+        mockMvc.perform(post("/projects/{projectId}/employees", projectId)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .header("If-Match", "\"" + (version + 1) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestJson))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(projectRepository.findById(projectId).orElseThrow().getEmployeeIds()).isEmpty();
+
+        mockMvc.perform(post("/projects/{projectId}/employees", projectId)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .header("If-Match", "\"" + version + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestJson))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + (version + 1) + "\""))
+                .andExpect(jsonPath("$.employeeIds", hasItem(4)));
+    }
+}
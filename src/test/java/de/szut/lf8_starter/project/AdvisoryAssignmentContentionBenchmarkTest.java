@@ -0,0 +1,11 @@
+package de.szut.lf8_starter.project;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * {@link AssignmentContentionBenchmarkTest} with the cluster-wide advisory lock.
+ * Run with ./gradlew benchmark
+ */
+@TestPropertySource(properties = "project.assignment-lock.mode=advisory")
+public class AdvisoryAssignmentContentionBenchmarkTest extends AssignmentContentionBenchmarkTest {
+}
@@ -0,0 +1,18 @@
+package de.szut.lf8_starter.project;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The contention scenarios of {@link AssignmentContentionIT} with the cluster-wide advisory lock.
+ */
+@TestPropertySource(properties = "project.assignment-lock.mode=advisory")
+public class AdvisoryAssignmentContentionIT extends AssignmentContentionIT {
+
+    @Test
+    public void usesAdvisoryLock() {
+        assertThat(assignmentLock).isInstanceOf(AdvisoryAssignmentLock.class);
+    }
+}
@@ -0,0 +1,70 @@
+package de.szut.lf8_starter.project;
+
+import de.szut.lf8_starter.config.TestSecurityConfiguration;
+import de.szut.lf8_starter.testcontainers.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(TestSecurityConfiguration.class)
+public class ArchiveProjectsIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private ProjectArchiver projectArchiver;
+
+    @Test
+    @WithMockUser
+    public void oldClosedProjectsAreArchivedAndOnlyReturnedOnRequest() throws Exception {
+        ProjectEntity oldFinished = new ProjectEntity();
+        oldFinished.setName("Altes Projekt");
+        oldFinished.setResponsibleEmployeeId(1L);
+        oldFinished.setStatus(ProjectStatus.FINISHED);
+        oldFinished.setStartDate(LocalDate.now().minusYears(3));
+        oldFinished.setEndDate(LocalDate.now().minusYears(2));
+        oldFinished.setEmployeeIds(Set.of(2L, 3L));
+        Long archivedId = projectRepository.save(oldFinished).getId();
+
+        ProjectEntity running = new ProjectEntity();
+        running.setName("Laufendes Projekt");
+        running.setResponsibleEmployeeId(1L);
+        running.setStatus(ProjectStatus.RUNNING);
+        running.setEmployeeIds(Set.of(2L));
+        projectRepository.save(running);
+
+        assertThat(projectArchiver.archiveClosedProjects()).isEqualTo(1);
+        assertThat(projectRepository.count()).isEqualTo(1);
+        assertThat(archivedProjectRepository.findById(archivedId).orElseThrow().getEmployeeIds())
+                .containsExactlyInAnyOrder(2L, 3L);
+
+        mockMvc.perform(get("/projects").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get("/projects").param("includeArchived", "true").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        mockMvc.perform(get("/projects/{id}", archivedId).with(jwt()))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/projects/{id}", archivedId).param("includeArchived", "true").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Altes Projekt")));
+
+        mockMvc.perform(get("/projects/employees/{employeeId}/projects", 3L).param("includeArchived", "true").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+}
@@ -0,0 +1,40 @@
+package de.szut.lf8_starter.project;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Throughput of the contention scenarios of {@link AssignmentContentionIT} with the configured lock.
+ * Run with ./gradlew benchmark
+ */
+@Tag("benchmark")
+public class AssignmentContentionBenchmarkTest extends AssignmentContentionIT {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Test
+    public void throughput() throws Exception {
+        benchmark("same project", this::assignToSameProject);
+        benchmark("unrelated projects", this::addAndRemoveOnUnrelatedProjects);
+    }
+
+    private void benchmark(String scenario, Scenario run) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run.changes();
+        }
+        long changes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            changes += run.changes();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("[contention] %-28s %-18s threads=%d  changes=%,6d  %,8.0f changes/s%n",
+                assignmentLock.getClass().getSimpleName(), scenario, THREADS, changes, changes / seconds);
+    }
+
+    @FunctionalInterface
+    private interface Scenario {
+        int changes() throws Exception;
+    }
+}
@@ -0,0 +1,142 @@
+package de.szut.lf8_starter.project;
+
+import de.szut.lf8_starter.config.TestSecurityConfiguration;
+import de.szut.lf8_starter.testcontainers.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrent team changes through the service layer: asserts that no concurrent change is lost.
+ * Runs with the default (striped, local) lock; {@link AdvisoryAssignmentContentionIT} repeats it with advisory locks,
+ * {@link AssignmentContentionBenchmarkTest} measures the throughput of the same scenarios.
+ */
+@Import(TestSecurityConfiguration.class)
+public class AssignmentContentionIT extends AbstractIntegrationTest {
+
+    protected static final int THREADS = 8;
+    protected static final int ASSIGNMENTS_PER_THREAD = 25;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    protected AssignmentLock assignmentLock;
+
+    @Test
+    public void concurrentAssignmentsToSameProject_NoLostUpdates() throws Exception {
+        assignToSameProject();
+    }
+
+    @Test
+    public void concurrentAddAndRemoveOnUnrelatedProjects_NoLostUpdates() throws Exception {
+        addAndRemoveOnUnrelatedProjects();
+    }
+
+    /**
+     * All threads add their employees to one project. Returns the number of membership changes.
+     */
+    protected int assignToSameProject() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        Long projectId = saveEmptyProject("Gemeinsames Projekt");
+
+        runConcurrently(thread -> () -> {
+            for (int i = 0; i < ASSIGNMENTS_PER_THREAD; i++) {
+                projectService.addEmployeeToProject(projectId, employeeId(thread, i), "Bearer dummy-token", null);
+            }
+            return null;
+        });
+
+        ProjectEntity project = projectRepository.findById(projectId).orElseThrow();
+        assertThat(project.getEmployeeIds()).hasSize(THREADS * ASSIGNMENTS_PER_THREAD);
+        return THREADS * ASSIGNMENTS_PER_THREAD;
+    }
+
+    /**
+     * Every thread adds and then removes employees on a project of its own. Returns the number of membership changes.
+     */
+    protected int addAndRemoveOnUnrelatedProjects() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        List<Long> projectIds = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            projectIds.add(saveEmptyProject("Projekt " + thread));
+        }
+
+        runConcurrently(thread -> () -> {
+            Long projectId = projectIds.get(thread);
+            for (int i = 0; i < ASSIGNMENTS_PER_THREAD; i++) {
+                projectService.addEmployeeToProject(projectId, employeeId(thread, i), "Bearer dummy-token", null);
+            }
+            for (int i = 0; i < ASSIGNMENTS_PER_THREAD; i += 2) {
+                projectService.removeEmployeeFromProject(projectId, employeeId(thread, i), null);
+            }
+            return null;
+        });
+
+        for (Long projectId : projectIds) {
+            ProjectEntity project = projectRepository.findById(projectId).orElseThrow();
+            assertThat(project.getEmployeeIds()).hasSize(ASSIGNMENTS_PER_THREAD / 2);
+        }
+        return THREADS * (ASSIGNMENTS_PER_THREAD + (ASSIGNMENTS_PER_THREAD + 1) / 2);
+    }
+
+    private Long saveEmptyProject(String name) {
+        ProjectEntity project = new ProjectEntity();
+        project.setName(name);
+        project.setResponsibleEmployeeId(1000L);
+        project.setEmployeeIds(new HashSet<>());
+        return projectRepository.save(project).getId();
+    }
+
+    private static Long employeeId(int thread, int index) {
+        return (long) thread * ASSIGNMENTS_PER_THREAD + index + 1;
+    }
+
+    private void runConcurrently(TaskFactory taskFactory) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            Callable<Void> task = taskFactory.create(thread);
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface TaskFactory {
+        Callable<Void> create(int thread);
+    }
+}
@@ -0,0 +1,212 @@
+package de.szut.lf8_starter.project;
+
+import de.szut.lf8_starter.config.TestSecurityConfiguration;
+import de.szut.lf8_starter.testcontainers.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(TestSecurityConfiguration.class)
+@TestPropertySource(properties = "project.deferred-validation.callback.allowed-hosts=localhost")
+public class DeferredValidationIT extends AbstractIntegrationTest {
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private DeferredProjectValidator deferredProjectValidator;
+
+    @Test
+    @WithMockUser
+    public void validProjectIsPromotedToRequestedStatus() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        String content = """
+                {"name": "Später geprüft", "responsibleEmployeeId": 1, "status": "RUNNING", "employeeIds": [2, 3]}
+                """;
+
+        mockMvc.perform(post("/projects")
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .header("Prefer", "respond-async")
+                        .contentType("application/json")
+                        .content(content))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", startsWith("/projects/")))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.status", is("PENDING_VALIDATION")));
+
+        ProjectEntity project = awaitValidation();
+        assertThat(project.getStatus()).isEqualTo(ProjectStatus.RUNNING);
+        assertThat(project.getValidationError()).isNull();
+    }
+
+    @Test
+    @WithMockUser
+    public void projectWithUnknownEmployeeIsRejected() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class)))
+                .thenReturn(ResponseEntity.ok().build());
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), eq(99L)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+
+        String content = """
+                {"name": "Mit Unbekanntem", "responsibleEmployeeId": 1, "employeeIds": [99]}
+                """;
+
+        mockMvc.perform(post("/projects")
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .header("Prefer", "respond-async")
+                        .contentType("application/json")
+                        .content(content))
+                .andExpect(status().isAccepted());
+
+        ProjectEntity project = awaitValidation();
+        assertThat(project.getStatus()).isEqualTo(ProjectStatus.REJECTED);
+        assertThat(project.getValidationError()).isEqualTo("Employee with ID 99 not found.");
+    }
+
+    @Test
+    @WithMockUser
+    public void relativeCallbackUrlIsRejected() throws Exception {
+        mockMvc.perform(post("/projects")
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .header("Prefer", "respond-async")
+                        .header("X-Callback-Url", "/hooks/projects")
+                        .contentType("application/json")
+                        .content("{\"name\": \"Ohne Rückruf\", \"responsibleEmployeeId\": 1}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(projectRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @WithMockUser
+    public void callbackToHostNotAllowedIsRejected() throws Exception {
+        mockMvc.perform(post("/projects")
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .header("Prefer", "respond-async")
+                        .header("X-Callback-Url", "https://hooks.example.org/projects")
+                        .contentType("application/json")
+                        .content("{\"name\": \"Fremder Rückruf\", \"responsibleEmployeeId\": 1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("X-Callback-Url 'https://hooks.example.org/projects' points to a host that is not allowed.")));
+
+        assertThat(projectRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @WithMockUser
+    public void callbackToInternalAddressIsRejectedAlsoIfAllowed() throws Exception {
+        mockMvc.perform(post("/projects")
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .header("Prefer", "respond-async")
+                        .header("X-Callback-Url", "http://localhost:8080/actuator")
+                        .contentType("application/json")
+                        .content("{\"name\": \"Interner Rückruf\", \"responsibleEmployeeId\": 1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("X-Callback-Url 'http://localhost:8080/actuator' points to an internal address.")));
+
+        assertThat(projectRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @WithMockUser
+    public void validationStatusCannotBeRequested() throws Exception {
+        mockMvc.perform(post("/projects")
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .contentType("application/json")
+                        .content("{\"name\": \"Schon abgelehnt\", \"responsibleEmployeeId\": 1, \"status\": \"REJECTED\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(projectRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @WithMockUser
+    public void pendingProjectCannotBeChanged() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        ProjectEntity pending = new ProjectEntity();
+        pending.setName("Wird geprüft");
+        pending.setResponsibleEmployeeId(1L);
+        pending.setStatus(ProjectStatus.PENDING_VALIDATION);
+        pending.setEmployeeIds(new HashSet<>(Set.of(99L)));
+        Long projectId = projectRepository.save(pending).getId();
+
+        mockMvc.perform(put("/projects/{id}", projectId)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .contentType("application/json")
+                        .content("{\"name\": \"Wird geprüft\", \"responsibleEmployeeId\": 1, \"status\": \"RUNNING\", \"employeeIds\": [99]}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/projects/{projectId}/employees", projectId)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .contentType("application/json")
+                        .content("{\"employeeId\": 2}"))
+                .andExpect(status().isConflict());
+
+        ProjectEntity project = projectRepository.findById(projectId).orElseThrow();
+        assertThat(project.getStatus()).isEqualTo(ProjectStatus.PENDING_VALIDATION);
+        assertThat(project.getEmployeeIds()).containsExactly(99L);
+    }
+
+    @Test
+    public void projectPendingBeforeRestartIsRejectedInForwardMode() throws Exception {
+        ProjectEntity pending = new ProjectEntity();
+        pending.setName("Vor dem Neustart");
+        pending.setResponsibleEmployeeId(1L);
+        pending.setStatus(ProjectStatus.PENDING_VALIDATION);
+        pending.setRequestedStatus(ProjectStatus.RUNNING);
+        pending.setEmployeeIds(new HashSet<>(Set.of(2L)));
+        projectRepository.save(pending);
+
+        deferredProjectValidator.recoverPending();
+
+        ProjectEntity project = awaitValidation();
+        assertThat(project.getStatus()).isEqualTo(ProjectStatus.REJECTED);
+        assertThat(project.getValidationError()).isEqualTo("The validation was interrupted by a restart. Please create the project again.");
+        assertThat(project.getRequestedStatus()).isNull();
+    }
+
+    private ProjectEntity awaitValidation() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ProjectEntity project = projectRepository.findAll().get(0);
+            if (project.getStatus() != ProjectStatus.PENDING_VALIDATION) {
+                return project;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Project was not validated in time");
+    }
+}
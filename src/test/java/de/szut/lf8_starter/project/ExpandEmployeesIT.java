@@ -0,0 +1,111 @@
+package de.szut.lf8_starter.project;
+
+import de.szut.lf8_starter.config.TestSecurityConfiguration;
+import de.szut.lf8_starter.employee.dto.EmployeeDto;
+import de.szut.lf8_starter.testcontainers.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Set;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(TestSecurityConfiguration.class)
+public class ExpandEmployeesIT extends AbstractIntegrationTest {
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    private static EmployeeDto employee(Long id, String lastName) {
+        EmployeeDto employee = new EmployeeDto();
+        employee.setId(id);
+        employee.setFirstName("Max");
+        employee.setLastName(lastName);
+        return employee;
+    }
+
+    private ProjectEntity saveProjectWithTeam(Set<Long> employeeIds) {
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Team-Projekt");
+        project.setResponsibleEmployeeId(1L);
+        project.setEmployeeIds(employeeIds);
+        return projectRepository.save(project);
+    }
+
+    @Test
+    @WithMockUser
+    public void expandResolvesEmployeesOnceAndServesThemFromTheCache() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(EmployeeDto.class), eq(11L)))
+                .thenReturn(ResponseEntity.ok(employee(11L, "Elf")));
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(EmployeeDto.class), eq(12L)))
+                .thenReturn(ResponseEntity.ok(employee(12L, "Zwölf")));
+        ProjectEntity project = saveProjectWithTeam(Set.of(11L, 12L));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/projects/{projectId}/employees", project.getId())
+                            .with(csrf())
+                            .header("Authorization", "Bearer dummy-token")
+                            .param("expand", "employees"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.employees", hasSize(2)))
+                    .andExpect(jsonPath("$.employees[0].id", is(11)))
+                    .andExpect(jsonPath("$.employees[0].lastName", is("Elf")))
+                    .andExpect(jsonPath("$.employees[1].lastName", is("Zwölf")))
+                    .andExpect(jsonPath("$.unresolvedEmployeeIds", hasSize(0)));
+        }
+
+        verify(restTemplate, times(1)).exchange(any(String.class), any(), any(), eq(EmployeeDto.class), eq(11L));
+    }
+
+    @Test
+    @WithMockUser
+    public void expandReturnsPartialResultForSlowAndUnknownEmployees() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(EmployeeDto.class), eq(21L)))
+                .thenReturn(ResponseEntity.ok(employee(21L, "Einundzwanzig")));
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(EmployeeDto.class), eq(22L)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(2500);
+                    return ResponseEntity.ok(employee(22L, "Langsam"));
+                });
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(EmployeeDto.class), eq(23L)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        ProjectEntity project = saveProjectWithTeam(Set.of(21L, 22L, 23L));
+
+        mockMvc.perform(get("/projects/{projectId}/employees", project.getId())
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .param("expand", "employees"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees", hasSize(1)))
+                .andExpect(jsonPath("$.employees[0].lastName", is("Einundzwanzig")))
+                .andExpect(jsonPath("$.unresolvedEmployeeIds", contains(22, 23)));
+    }
+
+    @Test
+    @WithMockUser
+    public void unknownExpandValueIsRejected() throws Exception {
+        ProjectEntity project = saveProjectWithTeam(Set.of(1L));
+
+        mockMvc.perform(get("/projects/{projectId}/employees", project.getId())
+                        .with(csrf())
+                        .param("expand", "customers"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,105 @@
+package de.szut.lf8_starter.project;
+
+import de.szut.lf8_starter.config.TestSecurityConfiguration;
+import de.szut.lf8_starter.testcontainers.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(TestSecurityConfiguration.class)
+@TestPropertySource(properties = "project.customer-api.stub.unknown-ids=77")
+public class ImportProjectsIT extends AbstractIntegrationTest {
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Test
+    @WithMockUser
+    public void importCsvReportsFailedLinesAndImportsTheRest() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class)))
+                .thenReturn(ResponseEntity.ok().build());
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), eq(99L)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+
+        String csv = """
+                name,description,customerId,responsibleEmployeeId,startDate,endDate,status,employeeIds
+                Alpha,"Erstes, importiertes Projekt",42,1,2030-01-01,2030-01-31,PLANNED,2;3
+                ,Ohne Namen,42,1,,,,
+                Gamma,,42,1,2031-01-01,2031-01-31,RUNNING,99
+                Delta,,42,2,,,,3
+                Epsilon,,77,2,,,,
+                """;
+
+        mockMvc.perform(post("/projects/import")
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.failed", is(3)))
+                .andExpect(jsonPath("$.errors[0].line", is(3)))
+                .andExpect(jsonPath("$.errors[0].message", is("Project name is mandatory and cannot be empty.")))
+                .andExpect(jsonPath("$.errors[1].line", is(4)))
+                .andExpect(jsonPath("$.errors[1].message", is("Employee with ID 99 not found.")))
+                .andExpect(jsonPath("$.errors[2].line", is(6)))
+                .andExpect(jsonPath("$.errors[2].message", is("Customer with ID 77 not found.")));
+
+        List<ProjectEntity> projects = projectRepository.findAll();
+        assertThat(projects).extracting(ProjectEntity::getName).containsExactlyInAnyOrder("Alpha", "Delta");
+        ProjectEntity alpha = projects.stream().filter(p -> p.getName().equals("Alpha")).findFirst().orElseThrow();
+        assertThat(alpha.getDescription()).isEqualTo("Erstes, importiertes Projekt");
+        assertThat(alpha.getEmployeeIds()).containsExactlyInAnyOrder(2L, 3L);
+
+        // employee 3 is used twice but validated once
+        verify(restTemplate, times(1)).exchange(any(String.class), any(), any(), eq(Void.class), eq(3L));
+    }
+
+    @Test
+    @WithMockUser
+    public void importNdjsonRejectsSchedulingConflictsPerLine() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        String ndjson = """
+                {"name": "Eins", "responsibleEmployeeId": 1, "startDate": "2030-01-01", "endDate": "2030-01-31"}
+                {"name": "Zwei", "responsibleEmployeeId": 1, "startDate": "2030-01-15", "endDate": "2030-02-15"}
+                {"name": "Drei", "responsibleEmployeeId": 2, "startDate": "2030-01-15", "endDate": "2030-02-15"}
+                kein json
+                """;
+
+        mockMvc.perform(post("/projects/import")
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.failed", is(2)))
+                .andExpect(jsonPath("$.errors[0].line", is(2)))
+                .andExpect(jsonPath("$.errors[0].message", is("An assigned employee is already scheduled in another project during this timeframe.")))
+                .andExpect(jsonPath("$.errors[1].line", is(4)));
+
+        assertThat(projectRepository.findAll()).extracting(ProjectEntity::getName).containsExactlyInAnyOrder("Eins", "Drei");
+    }
+}
@@ -0,0 +1,137 @@
+package de.szut.lf8_starter.project;
+
+import de.szut.lf8_starter.config.TestSecurityConfiguration;
+import de.szut.lf8_starter.testcontainers.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(TestSecurityConfiguration.class)
+public class PatchProjectIT extends AbstractIntegrationTest {
+
+    private static final MediaType MERGE_PATCH = MediaType.parseMediaType("application/merge-patch+json");
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Test
+    @WithMockUser
+    public void patchDescription_LeavesOtherFieldsAndTeamUntouched() throws Exception {
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Projekt");
+        project.setDescription("Alt");
+        project.setResponsibleEmployeeId(1L);
+        project.setStartDate(LocalDate.parse("2026-01-01"));
+        project.setEmployeeIds(Set.of(2L, 3L));
+        Long id = projectRepository.save(project).getId();
+
+        String patchJson = """
+                {
+                  "description": "Neu"
+                }
+                """;
+
+        mockMvc.perform(patch("/projects/{id}", id)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .contentType(MERGE_PATCH)
+                        .content(patchJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Projekt")))
+                .andExpect(jsonPath("$.description", is("Neu")))
+                .andExpect(jsonPath("$.startDate", is("2026-01-01")));
+
+        verify(restTemplate, never()).exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class));
+
+        ProjectEntity patchedProject = projectRepository.findById(id).orElseThrow();
+        assertThat(patchedProject.getDescription()).isEqualTo("Neu");
+        assertThat(patchedProject.getEmployeeIds()).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    @WithMockUser
+    public void patchTeamAndClearStartDate() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), eq(4L)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Projekt");
+        project.setResponsibleEmployeeId(1L);
+        project.setStartDate(LocalDate.parse("2026-01-01"));
+        project.setEmployeeIds(Set.of(2L));
+        Long id = projectRepository.save(project).getId();
+
+        String patchJson = """
+                {
+                  "startDate": null,
+                  "employeeIds": [2, 4]
+                }
+                """;
+
+        mockMvc.perform(patch("/projects/{id}", id)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .contentType(MERGE_PATCH)
+                        .content(patchJson))
+                .andExpect(status().isOk());
+
+        ProjectEntity patchedProject = projectRepository.findById(id).orElseThrow();
+        assertThat(patchedProject.getStartDate()).isNull();
+        assertThat(patchedProject.getEmployeeIds()).containsExactlyInAnyOrder(2L, 4L);
+    }
+
+    @Test
+    @WithMockUser
+    public void patchFails_NotAnObject() throws Exception {
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Projekt");
+        project.setResponsibleEmployeeId(1L);
+        Long id = projectRepository.save(project).getId();
+
+        mockMvc.perform(patch("/projects/{id}", id)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .contentType(MERGE_PATCH)
+                        .content("[1, 2]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    public void patchFails_BlankName() throws Exception {
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Projekt");
+        project.setResponsibleEmployeeId(1L);
+        Long id = projectRepository.save(project).getId();
+
+        for (String patchJson : new String[]{"{\"name\": \"\"}", "{\"name\": null}"}) {
+            mockMvc.perform(patch("/projects/{id}", id)
+                            .with(csrf())
+                            .header("Authorization", "Bearer dummy-token")
+                            .contentType(MERGE_PATCH)
+                            .content(patchJson))
+                    .andExpect(status().isBadRequest());
+        }
+
+        assertThat(projectRepository.findById(id).orElseThrow().getName()).isEqualTo("Projekt");
+    }
+}
@@ -0,0 +1,66 @@
+package de.szut.lf8_starter.project;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import de.szut.lf8_starter.config.TestSecurityConfiguration;
+import de.szut.lf8_starter.testcontainers.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(TestSecurityConfiguration.class)
+public class ProjectContentNegotiationIT extends AbstractIntegrationTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    @BeforeEach
+    void createProject() {
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Binär-Projekt");
+        project.setResponsibleEmployeeId(1L);
+        projectRepository.save(project);
+    }
+
+    @Test
+    @WithMockUser
+    public void jsonIsTheDefault() throws Exception {
+        mockMvc.perform(get("/projects").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @WithMockUser
+    public void smileIsReturnedWhenRequested() throws Exception {
+        byte[] body = mockMvc.perform(get("/projects").accept(SMILE).with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode projects = new ObjectMapper(new SmileFactory()).readTree(body);
+        assertThat(projects.get(0).get("name").asText()).isEqualTo("Binär-Projekt");
+    }
+
+    @Test
+    @WithMockUser
+    public void cborIsReturnedWhenRequested() throws Exception {
+        byte[] body = mockMvc.perform(get("/projects").accept(CBOR).with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode projects = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertThat(projects.get(0).get("name").asText()).isEqualTo("Binär-Projekt");
+    }
+}
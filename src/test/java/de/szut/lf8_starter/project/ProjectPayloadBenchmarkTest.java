@@ -0,0 +1,107 @@
+package de.szut.lf8_starter.project;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.szut.lf8_starter.project.dto.ProjectGetDto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares payload size and (de)serialisation time of a 10k project list in JSON, Smile and CBOR.
+ * Run with ./gradlew benchmark
+ */
+@Tag("benchmark")
+public class ProjectPayloadBenchmarkTest {
+
+    private static final int PROJECTS = 10_000;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 20;
+    private static final TypeReference<List<ProjectGetDto>> PROJECT_LIST = new TypeReference<>() {
+    };
+
+    @Test
+    public void compareFormatsAt10kProjects() throws IOException {
+        List<ProjectGetDto> projects = createProjects();
+
+        long jsonSize = benchmark("JSON", configure(new ObjectMapper()), projects);
+        long smileSize = benchmark("Smile", configure(new ObjectMapper(new SmileFactory())), projects);
+        long cborSize = benchmark("CBOR", configure(new ObjectMapper(new CBORFactory())), projects);
+
+        assertThat(smileSize).isLessThan(jsonSize);
+        assertThat(cborSize).isLessThan(jsonSize);
+    }
+
+    private long benchmark(String format, ObjectMapper mapper, List<ProjectGetDto> projects) throws IOException {
+        byte[] payload = null;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            payload = mapper.writeValueAsBytes(projects);
+            mapper.readValue(payload, PROJECT_LIST);
+        }
+
+        long serialiseNanos = 0;
+        long deserialiseNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            payload = mapper.writeValueAsBytes(projects);
+            long serialised = System.nanoTime();
+            List<ProjectGetDto> decoded = mapper.readValue(payload, PROJECT_LIST);
+            deserialiseNanos += System.nanoTime() - serialised;
+            serialiseNanos += serialised - start;
+            assertThat(decoded).hasSize(PROJECTS);
+        }
+
+        System.out.printf("[payload] %-5s size=%,9d B  gzip=%,9d B  serialise=%6.2f ms  deserialise=%6.2f ms%n",
+                format, payload.length, gzipSize(payload),
+                serialiseNanos / 1e6 / MEASURED_ROUNDS, deserialiseNanos / 1e6 / MEASURED_ROUNDS);
+        return payload.length;
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static List<ProjectGetDto> createProjects() {
+        Random random = new Random(42);
+        List<ProjectGetDto> projects = new ArrayList<>(PROJECTS);
+        for (long id = 1; id <= PROJECTS; id++) {
+            ProjectGetDto project = new ProjectGetDto();
+            project.setId(id);
+            project.setName("Projekt " + id);
+            project.setDescription("Beschreibung des Projekts " + id + " ".repeat(random.nextInt(200)));
+            project.setCustomerId((long) random.nextInt(500));
+            project.setResponsibleEmployeeId((long) random.nextInt(1000));
+            LocalDate start = LocalDate.of(2024, 1, 1).plusDays(random.nextInt(700));
+            project.setStartDate(start);
+            project.setEndDate(start.plusDays(30 + random.nextInt(300)));
+            project.setStatus(ProjectStatus.values()[random.nextInt(ProjectStatus.values().length)]);
+            project.setEmployeeIds(Set.of(id % 1000, (id * 7) % 1000 + 1000, (id * 13) % 1000 + 2000));
+            project.setVersion((long) random.nextInt(10));
+            projects.add(project);
+        }
+        return projects;
+    }
+
+    private static long gzipSize(byte[] payload) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        }
+        return compressed.size();
+    }
+}
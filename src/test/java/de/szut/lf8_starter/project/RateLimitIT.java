@@ -0,0 +1,39 @@
+package de.szut.lf8_starter.project;
+
+import de.szut.lf8_starter.config.TestSecurityConfiguration;
+import de.szut.lf8_starter.testcontainers.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(TestSecurityConfiguration.class)
+@TestPropertySource(properties = {
+        "project.rate-limit.write.capacity=2",
+        "project.rate-limit.write.refill-per-second=0.01"
+})
+public class RateLimitIT extends AbstractIntegrationTest {
+
+    @Test
+    public void writesBeyondTheBurstAreRejectedPerClient() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(delete("/projects/{id}", 999L).with(jwt().jwt(token -> token.subject("flooding-client"))))
+                    .andExpect(status().isNotFound());
+        }
+
+        mockMvc.perform(delete("/projects/{id}", 999L).with(jwt().jwt(token -> token.subject("flooding-client"))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        // reads and other clients have their own buckets
+        mockMvc.perform(get("/projects").with(jwt().jwt(token -> token.subject("flooding-client"))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/projects/{id}", 999L).with(jwt().jwt(token -> token.subject("other-client"))))
+                .andExpect(status().isNotFound());
+    }
+}
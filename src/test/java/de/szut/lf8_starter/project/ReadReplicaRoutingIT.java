@@ -0,0 +1,118 @@
+package de.szut.lf8_starter.project;
+
+import de.szut.lf8_starter.config.ReadYourWritesTracker;
+import de.szut.lf8_starter.config.TestSecurityConfiguration;
+import de.szut.lf8_starter.testcontainers.AbstractIntegrationTest;
+import de.szut.lf8_starter.testcontainers.ReplicaPostgresContextInitializer;
+import org.junit.jupiter.api.Test;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(TestSecurityConfiguration.class)
+@ContextConfiguration(initializers = ReplicaPostgresContextInitializer.class)
+public class ReadReplicaRoutingIT extends AbstractIntegrationTest {
+
+    // The replica container has no schema, so any service read routed to it fails instead of returning data.
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Test
+    @WithMockUser(username = "reader")
+    public void readOnlyTransactionsAreRoutedToReplica() {
+        assertThat(currentDatabase(true)).isEqualTo("replica_db");
+        assertThat(currentDatabase(false)).isEqualTo("test_db");
+    }
+
+    @Test
+    @WithMockUser(username = "writer")
+    public void recentWritersStayOnPrimary() {
+        readYourWritesTracker.recordWrite();
+
+        assertThat(currentDatabase(true)).isEqualTo("test_db");
+    }
+
+    @Test
+    @WithMockUser(username = "creator")
+    public void writerReadsOwnNewProjectFromPrimary() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        String responseContent = mockMvc.perform(post("/projects")
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Neu", "responsibleEmployeeId": 1}
+                                """))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long id = Long.parseLong(new JSONObject(responseContent).get("id").toString());
+
+        mockMvc.perform(get("/projects/{id}", id)
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Neu")));
+    }
+
+    @Test
+    @WithMockUser(username = "member-editor")
+    public void writeFlowChecksRunOnPrimary() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), eq(3L)))
+                .thenReturn(ResponseEntity.ok().build());
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Projekt");
+        project.setResponsibleEmployeeId(1L);
+        project.setEmployeeIds(new HashSet<>());
+        Long id = projectRepository.save(project).getId();
+
+        // this client has not written yet, so only the write flow itself keeps the existence check on the primary
+        assertThat(readYourWritesTracker.hasRecentWrite()).isFalse();
+        mockMvc.perform(post("/projects/{projectId}/employees", id)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"employeeId\": 3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employeeIds", hasItem(3)));
+    }
+
+    private String currentDatabase(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+    }
+}
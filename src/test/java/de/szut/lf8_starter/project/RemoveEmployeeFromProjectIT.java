@@ -44,4 +44,33 @@ public class RemoveEmployeeFromProjectIT extends AbstractIntegrationTest {
         assertThat(updatedProject.getEmployeeIds()).contains(2L);
         assertThat(updatedProject.getEmployeeIds()).doesNotContain(employeeToRemoveId);
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser
+    public void removeEmployeeWithIfMatch_VersionCheck() throws Exception {
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Versioniertes Projekt");
+        project.setResponsibleEmployeeId(1L);
+        project.setEmployeeIds(new HashSet<>(Set.of(2L, 3L)));
+        ProjectEntity savedProject = projectRepository.save(project);
+        Long projectId = savedProject.getId();
+        Long version = savedProject.getVersion();
+
+        mockMvc.perform(delete("/projects/{projectId}/employees/{employeeId}", projectId, 3L)
+                        .with(csrf())
+                        .with(jwt())
+                        .header("If-Match", "\"" + (version + 1) + "\""))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(projectRepository.findById(projectId).orElseThrow().getEmployeeIds()).contains(3L);
+
+        mockMvc.perform(delete("/projects/{projectId}/employees/{employeeId}", projectId, 3L)
+                        .with(csrf())
+                        .with(jwt())
+                        .header("If-Match", "\"" + version + "\""))
+                .andExpect(status().isNoContent());
+
+        ProjectEntity updatedProject = projectRepository.findById(projectId).orElseThrow();
+        assertThat(updatedProject.getEmployeeIds()).containsExactly(2L);
+        assertThat(updatedProject.getVersion()).isEqualTo(version + 1);
+    }
+}
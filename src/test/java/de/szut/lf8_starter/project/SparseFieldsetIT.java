@@ -0,0 +1,95 @@
+package de.szut.lf8_starter.project;
+
+import de.szut.lf8_starter.config.TestSecurityConfiguration;
+import de.szut.lf8_starter.testcontainers.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(TestSecurityConfiguration.class)
+public class SparseFieldsetIT extends AbstractIntegrationTest {
+
+    private ProjectEntity saveProject(String name, Long responsibleEmployeeId, Set<Long> employeeIds) {
+        ProjectEntity project = new ProjectEntity();
+        project.setName(name);
+        project.setResponsibleEmployeeId(responsibleEmployeeId);
+        project.setCustomerId(101L);
+        project.setEmployeeIds(new HashSet<>(employeeIds));
+        return projectRepository.save(project);
+    }
+
+    @Test
+    @WithMockUser
+    public void getAllProjectsReturnsOnlySelectedFields() throws Exception {
+        saveProject("Alpha", 1L, Set.of(2L, 3L));
+
+        mockMvc.perform(get("/projects").param("fields", "id,name").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Alpha")))
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[0].customerId").doesNotExist())
+                .andExpect(jsonPath("$[0].employeeIds").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    public void getProjectByIdLoadsTeamOnlyWhenRequested() throws Exception {
+        ProjectEntity project = saveProject("Beta", 1L, Set.of(2L, 3L));
+
+        mockMvc.perform(get("/projects/{id}", project.getId()).param("fields", "employeeIds").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + project.getVersion() + "\""))
+                .andExpect(jsonPath("$.id").doesNotExist())
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andExpect(jsonPath("$.employeeIds", containsInAnyOrder(2, 3)));
+    }
+
+    @Test
+    @WithMockUser
+    public void getProjectsOfEmployeeWithFields() throws Exception {
+        saveProject("Gamma", 7L, Set.of());
+        saveProject("Delta", 1L, Set.of(7L));
+        saveProject("Epsilon", 1L, Set.of(8L));
+
+        mockMvc.perform(get("/projects/employees/{employeeId}/projects", 7L).param("fields", "name").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", containsInAnyOrder("Gamma", "Delta")));
+    }
+
+    @Test
+    @WithMockUser
+    public void validationErrorCanBeSelected() throws Exception {
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Zeta");
+        project.setResponsibleEmployeeId(1L);
+        project.setStatus(ProjectStatus.REJECTED);
+        project.setValidationError("Employee with ID 1 not found");
+        project = projectRepository.save(project);
+
+        mockMvc.perform(get("/projects/{id}", project.getId()).param("fields", "status,validationError").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("REJECTED")))
+                .andExpect(jsonPath("$.validationError", is("Employee with ID 1 not found")))
+                .andExpect(jsonPath("$.name").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    public void unknownFieldIsRejected() throws Exception {
+        mockMvc.perform(get("/projects").param("fields", "id,budget").with(jwt()))
+                .andExpect(status().isBadRequest());
+    }
+}
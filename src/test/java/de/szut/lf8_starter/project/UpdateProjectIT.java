@@ -11,13 +11,20 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.LocalDate;
+import java.util.Set;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -59,4 +66,191 @@ public class UpdateProjectIT extends AbstractIntegrationTest {
         ProjectEntity updatedProjectFromDb = projectRepository.findById(id).orElseThrow();
         assertThat(updatedProjectFromDb.getName()).isEqualTo("Neues, aktualisiertes Projekt");
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser
+    public void updateProjectFails_DatesMovedIntoSchedulingConflict() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        ProjectEntity existingProject = new ProjectEntity();
+        existingProject.setName("Altes Projekt");
+        existingProject.setResponsibleEmployeeId(1L);
+        existingProject.setStartDate(LocalDate.parse("2025-01-01"));
+        existingProject.setEndDate(LocalDate.parse("2025-01-31"));
+        existingProject.setEmployeeIds(Set.of(5L));
+        projectRepository.save(existingProject);
+
+        ProjectEntity laterProject = new ProjectEntity();
+        laterProject.setName("Späteres Projekt");
+        laterProject.setResponsibleEmployeeId(2L);
+        laterProject.setStartDate(LocalDate.parse("2025-03-01"));
+        laterProject.setEndDate(LocalDate.parse("2025-03-31"));
+        laterProject.setEmployeeIds(Set.of(5L));
+        Long id = projectRepository.save(laterProject).getId();
+
+        String updateJson = """
+                {
+                  "name": "Späteres Projekt",
+                  "responsibleEmployeeId": 2,
+                  "startDate": "2025-01-15",
+                  "endDate": "2025-02-15",
+                  "employeeIds": [5]
+                }
+                """;
+
+        mockMvc.perform(put("/projects/{id}", id)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateJson))
+                .andExpect(status().isConflict());
+
+        ProjectEntity unchangedProject = projectRepository.findById(id).orElseThrow();
+        assertThat(unchangedProject.getStartDate()).isEqualTo(LocalDate.parse("2025-03-01"));
+    }
+
+    @Test
+    @WithMockUser
+    public void updateProjectSucceeds_DatesMovedAndConflictingMemberDropped() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        ProjectEntity existingProject = new ProjectEntity();
+        existingProject.setName("Altes Projekt");
+        existingProject.setResponsibleEmployeeId(1L);
+        existingProject.setStartDate(LocalDate.parse("2025-01-01"));
+        existingProject.setEndDate(LocalDate.parse("2025-01-31"));
+        existingProject.setEmployeeIds(Set.of(5L));
+        projectRepository.save(existingProject);
+
+        ProjectEntity laterProject = new ProjectEntity();
+        laterProject.setName("Späteres Projekt");
+        laterProject.setResponsibleEmployeeId(2L);
+        laterProject.setStartDate(LocalDate.parse("2025-03-01"));
+        laterProject.setEndDate(LocalDate.parse("2025-03-31"));
+        laterProject.setEmployeeIds(Set.of(5L, 6L));
+        Long id = projectRepository.save(laterProject).getId();
+
+        String updateJson = """
+                {
+                  "name": "Späteres Projekt",
+                  "responsibleEmployeeId": 2,
+                  "startDate": "2025-01-15",
+                  "endDate": "2025-02-15",
+                  "employeeIds": [6]
+                }
+                """;
+
+        mockMvc.perform(put("/projects/{id}", id)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.startDate", is("2025-01-15")));
+
+        ProjectEntity updatedProject = projectRepository.findById(id).orElseThrow();
+        assertThat(updatedProject.getStartDate()).isEqualTo(LocalDate.parse("2025-01-15"));
+        assertThat(updatedProject.getEmployeeIds()).containsExactly(6L);
+    }
+
+    @Test
+    @WithMockUser
+    public void updateProjectWithIfMatch_VersionCheck() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        ProjectEntity originalProject = new ProjectEntity();
+        originalProject.setName("Versioniertes Projekt");
+        originalProject.setResponsibleEmployeeId(1L);
+        ProjectEntity savedProject = projectRepository.save(originalProject);
+        Long id = savedProject.getId();
+        Long version = savedProject.getVersion();
+
+        String updateJson = """
+                {
+                  "name": "Versioniertes Projekt (neu)",
+                  "responsibleEmployeeId": 1
+                }
+                """;
+
+        mockMvc.perform(put("/projects/{id}", id)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .header("If-Match", "\"" + (version + 1) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateJson))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/projects/{id}", id)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .header("If-Match", "W/\"" + version + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateJson))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/projects/{id}", id)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .header("If-Match", "\"" + version + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateJson))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + (version + 1) + "\""))
+                .andExpect(jsonPath("$.name", is("Versioniertes Projekt (neu)")));
+    }
+
+    @Test
+    @WithMockUser
+    public void updateProject_OnlyNewEmployeesAreValidated() throws Exception {
+        when(restTemplate.exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        ProjectEntity originalProject = new ProjectEntity();
+        originalProject.setName("Projekt");
+        originalProject.setDescription("Alte Beschreibung");
+        originalProject.setResponsibleEmployeeId(1L);
+        originalProject.setEmployeeIds(Set.of(2L, 3L));
+        Long id = projectRepository.save(originalProject).getId();
+
+        String renameJson = """
+                {
+                  "name": "Projekt",
+                  "description": "Neue Beschreibung",
+                  "responsibleEmployeeId": 1,
+                  "employeeIds": [2, 3]
+                }
+                """;
+
+        mockMvc.perform(put("/projects/{id}", id)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(renameJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description", is("Neue Beschreibung")));
+
+        verify(restTemplate, never()).exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class));
+
+        String addMemberJson = """
+                {
+                  "name": "Projekt",
+                  "description": "Neue Beschreibung",
+                  "responsibleEmployeeId": 1,
+                  "employeeIds": [2, 3, 4]
+                }
+                """;
+
+        mockMvc.perform(put("/projects/{id}", id)
+                        .with(csrf())
+                        .header("Authorization", "Bearer dummy-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(addMemberJson))
+                .andExpect(status().isOk());
+
+        verify(restTemplate, times(1)).exchange(any(String.class), any(), any(), eq(Void.class), any(Long.class));
+        verify(restTemplate).exchange(any(String.class), any(), any(), eq(Void.class), eq(4L));
+    }
+}
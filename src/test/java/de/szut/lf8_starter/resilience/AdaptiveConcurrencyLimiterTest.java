@@ -0,0 +1,49 @@
+package de.szut.lf8_starter.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void shedsRequestsAboveTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 2, 1, 10, meterRegistry);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(meterRegistry.get("project.concurrency.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void limitGrowsWhileLatencyIsStableAndShrinksWhenItRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("write", 10, 2, 100, meterRegistry);
+
+        for (int i = 0; i < 50; i++) {
+            saturateAndRelease(limiter, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        int grownLimit = limiter.getLimit();
+        assertThat(grownLimit).isGreaterThan(10);
+
+        for (int i = 0; i < 50; i++) {
+            saturateAndRelease(limiter, TimeUnit.MILLISECONDS.toNanos(200));
+        }
+        assertThat(limiter.getLimit()).isLessThan(grownLimit);
+    }
+
+    private static void saturateAndRelease(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rttNanos);
+        }
+    }
+}
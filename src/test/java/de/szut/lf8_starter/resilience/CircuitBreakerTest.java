@@ -0,0 +1,96 @@
+package de.szut.lf8_starter.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private void fail(CircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            breaker.onFailure();
+        }
+    }
+
+    @Test
+    public void opensOnceTheFailureRateIsReached() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 4, 0.5, Duration.ofMinutes(1), 1, meterRegistry);
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onSuccess();
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onSuccess();
+        fail(breaker, 1);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        fail(breaker, 1);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        assertThat(meterRegistry.get("project.circuit-breaker.state").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void ignoredCallsAreNotRecorded() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 2, 0.5, Duration.ofMinutes(1), 1, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            breaker.onIgnored();
+        }
+        fail(breaker, 1);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void ignoredHalfOpenProbeFreesItsSlot() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 2, 0.5, Duration.ofMillis(50), 1, meterRegistry);
+        fail(breaker, 2);
+        Thread.sleep(60);
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onIgnored();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    public void halfOpenProbeClosesOnSuccess() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 2, 0.5, Duration.ofMillis(50), 1, meterRegistry);
+        fail(breaker, 2);
+        Thread.sleep(60);
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        // only one probe at a time
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    public void halfOpenProbeReopensOnFailure() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 2, 0.5, Duration.ofMillis(50), 1, meterRegistry);
+        fail(breaker, 2);
+        Thread.sleep(60);
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        assertThat(meterRegistry.get("project.circuit-breaker.transitions").tag("state", "OPEN").counter().count())
+                .isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,128 @@
+package de.szut.lf8_starter.resilience;
+
+import de.szut.lf8_starter.exceptionHandling.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HedgedExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HedgedExecutor executor(double budgetRatio, int maxRetries) {
+        return new HedgedExecutor("test", 0.9, Duration.ofMillis(20), budgetRatio, maxRetries, Duration.ofMillis(5),
+                failure -> failure instanceof IllegalStateException, meterRegistry);
+    }
+
+    private static long inSeconds(long seconds) {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    private static void warmUp(HedgedExecutor executor) {
+        for (int i = 0; i < 500; i++) {
+            executor.call(() -> "fast", inSeconds(5));
+        }
+    }
+
+    @Test
+    public void slowAttemptIsHedgedAndTheFasterAnswerWins() {
+        try (HedgedExecutor executor = executor(1.0, 0)) {
+            warmUp(executor);
+            AtomicInteger attempts = new AtomicInteger();
+
+            long startedAt = System.nanoTime();
+            String result = executor.call(() -> {
+                if (attempts.incrementAndGet() == 1) {
+                    sleep(5000);
+                    return "slow";
+                }
+                return "hedge";
+            }, inSeconds(10));
+
+            assertThat(result).isEqualTo("hedge");
+            assertThat(System.nanoTime() - startedAt).isLessThan(TimeUnit.SECONDS.toNanos(2));
+            assertThat(meterRegistry.get("project.hedging.hedge-wins").counter().count()).isEqualTo(1.0);
+        }
+    }
+
+    @Test
+    public void noHedgeWithoutBudget() {
+        try (HedgedExecutor executor = executor(0.0, 0)) {
+            warmUp(executor);
+            // the initial budget allows a few hedges, use it up
+            for (int i = 0; i < 10; i++) {
+                executor.call(() -> {
+                    sleep(60);
+                    return "slow";
+                }, inSeconds(5));
+            }
+            AtomicInteger attempts = new AtomicInteger();
+
+            executor.call(() -> {
+                attempts.incrementAndGet();
+                sleep(60);
+                return "slow";
+            }, inSeconds(5));
+
+            assertThat(attempts.get()).isEqualTo(1);
+            assertThat(meterRegistry.get("project.hedging.budget-exhausted").counter().count()).isGreaterThan(0.0);
+        }
+    }
+
+    @Test
+    public void transientFailuresAreRetried() {
+        try (HedgedExecutor executor = executor(1.0, 2)) {
+            AtomicInteger attempts = new AtomicInteger();
+
+            String result = executor.call(() -> {
+                if (attempts.incrementAndGet() < 3) {
+                    throw new IllegalStateException("unavailable");
+                }
+                return "ok";
+            }, inSeconds(5));
+
+            assertThat(result).isEqualTo("ok");
+            assertThat(attempts.get()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void otherFailuresAreNotRetried() {
+        try (HedgedExecutor executor = executor(1.0, 2)) {
+            AtomicInteger attempts = new AtomicInteger();
+
+            assertThatThrownBy(() -> executor.call(() -> {
+                attempts.incrementAndGet();
+                throw new IllegalArgumentException("not found");
+            }, inSeconds(5))).isInstanceOf(IllegalArgumentException.class);
+            assertThat(attempts.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void givesUpAtTheDeadline() {
+        try (HedgedExecutor executor = executor(1.0, 2)) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+
+            assertThatThrownBy(() -> executor.call(() -> {
+                sleep(5000);
+                return "late";
+            }, deadline)).isInstanceOf(DeadlineExceededException.class);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("cancelled");
+        }
+    }
+}
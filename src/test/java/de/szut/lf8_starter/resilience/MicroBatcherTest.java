@@ -0,0 +1,52 @@
+package de.szut.lf8_starter.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MicroBatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrentLinkedQueue<Long> loadedKeys = new ConcurrentLinkedQueue<>();
+
+    private Long load(Long key) {
+        loadedKeys.add(key);
+        if (key < 0) {
+            throw new IllegalArgumentException("negative key " + key);
+        }
+        return key * 10;
+    }
+
+    @Test
+    public void dedupesKeysWithinTheWindowAndCompletesEachCaller() throws Exception {
+        try (MicroBatcher<Long, Long> batcher = new MicroBatcher<>("test", Duration.ofMillis(50), 100, this::load, meterRegistry)) {
+            List<CompletableFuture<Long>> futures = List.of(batcher.load(1L), batcher.load(2L), batcher.load(1L), batcher.load(-1L));
+
+            assertThat(futures.get(0).get(5, TimeUnit.SECONDS)).isEqualTo(10L);
+            assertThat(futures.get(1).get(5, TimeUnit.SECONDS)).isEqualTo(20L);
+            assertThat(futures.get(2).get(5, TimeUnit.SECONDS)).isEqualTo(10L);
+            assertThatThrownBy(() -> futures.get(3).join()).hasCauseInstanceOf(IllegalArgumentException.class);
+            assertThat(loadedKeys).containsExactlyInAnyOrder(1L, 2L, -1L);
+            assertThat(meterRegistry.get("project.batch.size").summary().max()).isEqualTo(3.0);
+        }
+    }
+
+    @Test
+    public void fullBatchIsDispatchedWithoutWaitingForTheWindow() throws Exception {
+        try (MicroBatcher<Long, Long> batcher = new MicroBatcher<>("test", Duration.ofMinutes(1), 2, this::load, meterRegistry)) {
+            CompletableFuture<Long> first = batcher.load(1L);
+            CompletableFuture<Long> second = batcher.load(2L);
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(10L);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(20L);
+        }
+    }
+}
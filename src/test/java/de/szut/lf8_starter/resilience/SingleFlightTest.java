@@ -0,0 +1,72 @@
+package de.szut.lf8_starter.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+
+    @Test
+    public void concurrentCallersShareOneComputation() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("test", 42L, () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "project-42";
+                })));
+            }
+            while (collapsed() + executions.get() < 8) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("project-42");
+            }
+            assertThat(executions.get()).isEqualTo(1);
+            assertThat(collapsed()).isEqualTo(7);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void exceptionIsRethrownAndNextCallRunsAgain() {
+        assertThatThrownBy(() -> singleFlight.execute("test", 1L, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.execute("test", 1L, () -> "ok")).isEqualTo("ok");
+    }
+
+    private int collapsed() {
+        return (int) meterRegistry.counter("project.single-flight.calls", "name", "test", "result", "collapsed").count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
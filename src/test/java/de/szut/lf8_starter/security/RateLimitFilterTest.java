@@ -0,0 +1,43 @@
+package de.szut.lf8_starter.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new RateLimitFilter.Limit(5, 1), new RateLimitFilter.Limit(5, 1), 100, new ObjectMapper());
+
+    private int get(String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/projects");
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Test
+    public void bucketsStayBoundedAlsoWhenNoneIsFull() throws Exception {
+        // every client has just used a token, so no bucket is full and could be dropped without losing state
+        for (int client = 0; client < 1000; client++) {
+            assertThat(get("10.0.0." + client)).isEqualTo(200);
+        }
+
+        assertThat(filter.trackedClients()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    public void clientIsLimitedAfterItsBurst() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(get("10.0.0.1")).isEqualTo(200);
+        }
+
+        assertThat(get("10.0.0.1")).isEqualTo(429);
+        assertThat(get("10.0.0.2")).isEqualTo(200);
+    }
+}
@@ -1,6 +1,7 @@
 package de.szut.lf8_starter.testcontainers;
 
 import de.szut.lf8_starter.hello.HelloRepository;
+import de.szut.lf8_starter.project.ArchivedProjectRepository;
 import de.szut.lf8_starter.project.ProjectRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,9 +31,13 @@ public class AbstractIntegrationTest {
     @Autowired
     protected ProjectRepository projectRepository;
 
+    @Autowired
+    protected ArchivedProjectRepository archivedProjectRepository;
+
     @BeforeEach
     void setUp() {
         helloRepository.deleteAll();
         projectRepository.deleteAll();
+        archivedProjectRepository.deleteAll();
     }
 }
@@ -0,0 +1,31 @@
+package de.szut.lf8_starter.testcontainers;
+
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Starts a second Postgres container acting as read replica. It is not replicated from the primary;
+ * its distinct database name lets tests observe which datasource served a connection.
+ */
+public class ReplicaPostgresContextInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    private static final PostgreSQLContainer<?> replica = new PostgreSQLContainer<>(DockerImageName.parse("postgres:14"))
+            .withDatabaseName("replica_db")
+            .withUsername("test-db-user")
+            .withPassword("test-db-password")
+            .withReuse(true);
+
+    @Override
+    public void initialize(ConfigurableApplicationContext configurableApplicationContext) {
+        replica.start();
+
+        TestPropertyValues.of(
+                        "project.datasource.replica.url=" + replica.getJdbcUrl(),
+                        "project.datasource.replica.username=" + replica.getUsername(),
+                        "project.datasource.replica.password=" + replica.getPassword())
+                .applyTo(configurableApplicationContext.getEnvironment());
+    }
+}